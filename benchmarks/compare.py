@@ -0,0 +1,61 @@
+#!/usr/bin/env python3
+"""Compares a JMH JSON result file against the committed baseline.
+
+Usage: compare.py results/baseline.json new.json [--tolerance 0.15]
+
+Exits with status 1 when a benchmark got slower than the baseline by more
+than the tolerance plus both runs' error margins.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    scores = {}
+    for r in results:
+        params = ",".join(f"{k}={v}" for k, v in sorted(r.get("params", {}).items()))
+        name = r["benchmark"].rsplit(".", 2)[-2:]
+        key = ".".join(name) + (f"({params})" if params else "")
+        m = r["primaryMetric"]
+        error = m.get("scoreError")
+        scores[key] = (m["score"], 0.0 if error in (None, "NaN") else float(error), m["scoreUnit"])
+    return scores
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--tolerance", type=float, default=0.15,
+                        help="allowed slowdown as a fraction of the baseline score")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+
+    print(f"{'benchmark':72} {'baseline':>14} {'current':>14} {'change':>8}")
+    for key in sorted(baseline.keys() | current.keys()):
+        if key not in baseline or key not in current:
+            print(f"{key:72} {'only in ' + ('current' if key in current else 'baseline'):>38}")
+            continue
+        base, base_error, unit = baseline[key]
+        now, now_error, now_unit = current[key]
+        if unit != now_unit:
+            print(f"{key:72} unit changed from {unit} to {now_unit}")
+            continue
+        change = (now - base) / base
+        # Lower is better for the average-time modes used here
+        slower = now - now_error > (base + base_error) * (1 + args.tolerance)
+        regressions += slower
+        flag = "  REGRESSION" if slower else ""
+        print(f"{key:72} {base:>10.3f} {unit:>3} {now:>10.3f} {unit:>3} {change:>+7.1%}{flag}")
+
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
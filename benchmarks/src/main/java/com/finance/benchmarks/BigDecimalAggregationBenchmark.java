@@ -0,0 +1,87 @@
+package com.finance.benchmarks;
+
+import com.finance.model.Trade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing money over a trade history the ways the services do, with a double
+ * sum as the floor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BigDecimalAggregationBenchmark {
+
+    @Param({"10000"})
+    public int trades;
+
+    private List<Trade> tradeList;
+
+    @Setup
+    public void setUp() {
+        tradeList = Fixtures.trades(trades, 50);
+    }
+
+    @Benchmark
+    public BigDecimal sumTotalsLoop() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Trade trade : tradeList) {
+            total = total.add(trade.getTotalAmount());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumTotalsStream() {
+        return tradeList.stream().map(Trade::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal sumSignedTotals() {
+        // Net invested, as replayed for portfolio snapshots
+        BigDecimal net = BigDecimal.ZERO;
+        for (Trade trade : tradeList) {
+            net = trade.getTradeType() == Trade.TradeType.BUY
+                    ? net.add(trade.getTotalAmount())
+                    : net.subtract(trade.getTotalAmount());
+        }
+        return net;
+    }
+
+    @Benchmark
+    public BigDecimal sumProductsRounded() {
+        // Quantity times price per trade, rounded to cents once at the end
+        BigDecimal total = BigDecimal.ZERO;
+        for (Trade trade : tradeList) {
+            total = total.add(trade.getQuantity().multiply(trade.getPricePerUnit()));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public double sumTotalsDouble() {
+        double total = 0;
+        for (Trade trade : tradeList) {
+            total += trade.getTotalAmount().doubleValue();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,155 @@
+package com.finance.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The expense totals behind the dashboard, run as the SQL Hibernate generates
+ * for ExpenseRepository against a file database of 10M expenses. The schema
+ * param picks the indexes: V1 has only the user_id foreign key index, V2 adds
+ * the covering (user_id, expense_date, ...) and (user_id, category, ...) ones.
+ *
+ * The database is seeded once under target/ and reused by later runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseQueryBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int SEED_BATCH = 1_000_000;
+    private static final String[] CATEGORIES = {
+            "FOOD", "TRANSPORTATION", "ENTERTAINMENT", "UTILITIES", "HEALTHCARE",
+            "SHOPPING", "EDUCATION", "TRAVEL", "HOUSING", "OTHER"
+    };
+    // Three years of expenses, one minute apart at the finest
+    private static final LocalDateTime LAST_DATE = LocalDateTime.of(2024, 12, 31, 0, 0);
+    private static final int DATE_SPREAD_MINUTES = 3 * 365 * 24 * 60;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"V1", "V2"})
+    public String schema;
+
+    private Connection connection;
+    private PreparedStatement totalByDateRange;
+    private PreparedStatement totalsByCategory;
+    private final long userId = USERS / 2;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:file:" + System.getProperty("benchmarks.db", "./target/expenses-" + rows);
+        Flyway.configure().dataSource(url, "sa", "").target("1").load().migrate();
+        // Otherwise H2 hands back the previous result of an unchanged query
+        connection = DriverManager.getConnection(url + ";OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        seed();
+        try (Statement statement = connection.createStatement()) {
+            if (schema.equals("V2")) {
+                // As in V2__per_user_access_path_indexes.sql
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses (user_id, expense_date, id, amount)");
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date ON expenses (user_id, category, expense_date, amount)");
+            } else {
+                statement.execute("DROP INDEX IF EXISTS idx_expenses_user_date");
+                statement.execute("DROP INDEX IF EXISTS idx_expenses_user_category_date");
+            }
+            statement.execute("ANALYZE");
+        }
+
+        totalByDateRange = connection.prepareStatement(
+                "select sum(e1_0.amount) from expenses e1_0 where e1_0.user_id=? and e1_0.expense_date between ? and ?");
+        totalByDateRange.setLong(1, userId);
+        totalByDateRange.setTimestamp(2, Timestamp.valueOf(LAST_DATE.minusMonths(1)));
+        totalByDateRange.setTimestamp(3, Timestamp.valueOf(LAST_DATE));
+        totalsByCategory = connection.prepareStatement(
+                "select e1_0.category,sum(e1_0.amount) from expenses e1_0 where e1_0.user_id=? group by e1_0.category");
+        totalsByCategory.setLong(1, userId);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public BigDecimal getTotalExpensesByDateRange() throws SQLException {
+        try (ResultSet result = totalByDateRange.executeQuery()) {
+            result.next();
+            return result.getBigDecimal(1);
+        }
+    }
+
+    @Benchmark
+    public void getExpensesByCategory(Blackhole blackhole) throws SQLException {
+        try (ResultSet result = totalsByCategory.executeQuery()) {
+            while (result.next()) {
+                blackhole.consume(result.getString(1));
+                blackhole.consume(result.getBigDecimal(2));
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM expenses")) {
+            count.next();
+            if (count.getLong(1) == rows) {
+                return;
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM expenses");
+            statement.execute("DELETE FROM users");
+            statement.execute("INSERT INTO users (id, username, email, password) "
+                    + "SELECT x, 'user' || x, 'user' || x || '@example.com', 'unused' FROM SYSTEM_RANGE(1, " + USERS + ")");
+        }
+
+        // Users, categories, amounts and dates are spread by multiplicative hashing, so every run seeds the same rows
+        StringBuilder categories = new StringBuilder("ARRAY[");
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categories.append(i == 0 ? "'" : ", '").append(CATEGORIES[i]).append("'");
+        }
+        categories.append("]");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO expenses (id, user_id, description, amount, category, expense_date) "
+                        + "SELECT x, 1 + MOD(x * 7919, " + USERS + "), 'Expense ' || x, "
+                        + "CAST(1 + MOD(x * 104729, 50000) AS NUMERIC(19, 2)) / 100, "
+                        + categories + "[1 + MOD(x * 31, " + CATEGORIES.length + ")], "
+                        + "DATEADD(MINUTE, -MOD(x * 15485863, " + DATE_SPREAD_MINUTES + "), CAST(? AS TIMESTAMP)) "
+                        + "FROM SYSTEM_RANGE(CAST(? AS BIGINT), CAST(? AS BIGINT))")) {
+            insert.setTimestamp(1, Timestamp.valueOf(LAST_DATE));
+            for (long from = 1; from <= rows; from += SEED_BATCH) {
+                insert.setLong(2, from);
+                insert.setLong(3, Math.min(rows, from + SEED_BATCH - 1));
+                insert.executeUpdate();
+            }
+        }
+    }
+}
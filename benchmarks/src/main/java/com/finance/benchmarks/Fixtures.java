@@ -0,0 +1,103 @@
+package com.finance.benchmarks;
+
+import com.finance.model.Position;
+import com.finance.model.Trade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded test data, so every run benchmarks the same trades and prices.
+ */
+final class Fixtures {
+
+    static final long SEED = 42;
+
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 2, 9, 30);
+
+    private Fixtures() {
+    }
+
+    static String symbol(int index) {
+        return String.format("S%03d", index);
+    }
+
+    /**
+     * Trades over the given number of symbols in trade date order. Sells never
+     * exceed the quantity held, as the lot accounting expects.
+     */
+    static List<Trade> trades(int count, int symbols) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        BigDecimal[] held = new BigDecimal[symbols];
+        double[] prices = new double[symbols];
+        for (int i = 0; i < symbols; i++) {
+            held[i] = BigDecimal.ZERO;
+            prices[i] = 10 + random.nextDouble(490);
+        }
+
+        List<Trade> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int s = random.nextInt(symbols);
+            prices[s] = Math.max(1, prices[s] * (1 + random.nextDouble(-0.03, 0.03)));
+
+            boolean sell = held[s].signum() > 0 && random.nextInt(3) == 0;
+            BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(100)).setScale(8);
+            if (sell) {
+                quantity = quantity.min(held[s]);
+                held[s] = held[s].subtract(quantity);
+            } else {
+                held[s] = held[s].add(quantity);
+            }
+            BigDecimal price = BigDecimal.valueOf(prices[s]).setScale(2, RoundingMode.HALF_UP);
+
+            Trade trade = new Trade();
+            trade.setId((long) i + 1);
+            trade.setSymbol(symbol(s));
+            trade.setAssetType("STOCK");
+            trade.setTradeType(sell ? Trade.TradeType.SELL : Trade.TradeType.BUY);
+            trade.setQuantity(quantity);
+            trade.setPricePerUnit(price);
+            trade.setTotalAmount(quantity.multiply(price).setScale(2, RoundingMode.HALF_UP));
+            trade.setFees(BigDecimal.ZERO.setScale(2));
+            trade.setTradeDate(START.plusMinutes(i * 7L));
+            trade.setCreatedAt(trade.getTradeDate());
+            trade.setUpdatedAt(trade.getTradeDate());
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    static List<Position> positions(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Position position = new Position(null, symbol(i));
+            position.setAssetType("STOCK");
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(1000)).setScale(8);
+            BigDecimal cost = BigDecimal.valueOf(10 + random.nextDouble(490)).setScale(2, RoundingMode.HALF_UP);
+            position.setQuantity(quantity);
+            position.setCostBasis(quantity.multiply(cost).setScale(4, RoundingMode.HALF_UP));
+            position.setTotalBought(position.getCostBasis().multiply(BigDecimal.valueOf(2)));
+            position.setTotalSold(position.getCostBasis());
+            position.setRealizedProfitLoss(BigDecimal.valueOf(random.nextDouble(-500, 500)).setScale(4, RoundingMode.HALF_UP));
+            position.setTradeCount(1 + random.nextInt(50));
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    static Map<String, BigDecimal> prices(int symbols) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (int i = 0; i < symbols; i++) {
+            prices.put(symbol(i), BigDecimal.valueOf(10 + random.nextDouble(490)).setScale(2, RoundingMode.HALF_UP));
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,82 @@
+package com.finance.benchmarks;
+
+import com.finance.security.JwtTokenProvider;
+import com.finance.security.UserPrincipal;
+import com.finance.security.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done by JwtAuthenticationFilter on every request: a token seen
+ * before (served from the validation cache), a token verified from scratch,
+ * and resolving the principal from the claims through the principal cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "mysupersecurelongsecretkeythatismorethan64characterslong1234567890test";
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider verifyingProvider;
+    private String token;
+    private Claims claims;
+    private UserPrincipal principal;
+    private UserPrincipalCache principalCache;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(1024);
+        verifyingProvider = provider(0);
+
+        principal = new UserPrincipal(1L, "bench", "bench@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = cachingProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        claims = cachingProvider.getValidatedClaims(token);
+        principalCache = new UserPrincipalCache(1024, 300);
+    }
+
+    @Benchmark
+    public Claims validateCached() {
+        return cachingProvider.getValidatedClaims(token);
+    }
+
+    @Benchmark
+    public Claims validateUncached() {
+        return verifyingProvider.getValidatedClaims(token);
+    }
+
+    @Benchmark
+    public UserPrincipal principalFromCache() {
+        return principalCache.get(cachingProvider.getUserIdFromClaims(claims), id -> principal);
+    }
+
+    private static JwtTokenProvider provider(int validationCacheSize) {
+        // Stand in for the @Value injection and @PostConstruct of the context
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionSupport.set(provider, "jwtSecret", SECRET);
+        ReflectionSupport.set(provider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionSupport.set(provider, "validationCacheSize", validationCacheSize);
+        ReflectionSupport.invoke(provider, "init");
+        return provider;
+    }
+}
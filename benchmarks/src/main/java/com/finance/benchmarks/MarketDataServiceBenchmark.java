@@ -0,0 +1,100 @@
+package com.finance.benchmarks;
+
+import com.finance.service.MarketDataProvider;
+import com.finance.service.MarketDataService;
+import com.finance.service.PriceHistoryStore;
+import com.finance.service.QuoteCache;
+import com.finance.service.StubMarketDataProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch price lookups through MarketDataService with the stub provider as the
+ * only upstream: once with every symbol cached, and once with caching off so
+ * each lookup goes through the provider chain and the price history store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketDataServiceBenchmark {
+
+    @Param({"50"})
+    public int symbols;
+
+    private Path historyDir;
+    private MarketDataService cached;
+    private MarketDataService uncached;
+    private Map<String, String> assetTypesBySymbol;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        historyDir = Files.createTempDirectory("price-history-bench");
+        cached = service(new QuoteCache(1000, 3600, 3600, 0));
+        uncached = service(new QuoteCache(1000, 0, 0, 0));
+
+        assetTypesBySymbol = new HashMap<>();
+        for (int i = 0; i < symbols; i++) {
+            assetTypesBySymbol.put(Fixtures.symbol(i), "STOCK");
+        }
+        cached.getCurrentPrices(assetTypesBySymbol);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(historyDir);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> cachedLookup() {
+        return cached.getCurrentPrices(assetTypesBySymbol);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> uncachedLookup() {
+        return uncached.getCurrentPrices(assetTypesBySymbol);
+    }
+
+    private MarketDataService service(QuoteCache quoteCache) {
+        // Same stub settings as application.yml, without latency or errors
+        StubMarketDataProvider stub = new StubMarketDataProvider(1000, 0, 0, 0, 0.02, Fixtures.SEED);
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("api.stub.circuit-breaker.enabled", "false")));
+
+        PriceHistoryStore store = new PriceHistoryStore(historyDir.resolve(String.valueOf(quoteCache.hashCode())).toString(), 65536, 256);
+        List<MarketDataProvider> providers = List.of(stub);
+        MarketDataService service = new MarketDataService(quoteCache, store, Schedulers.boundedElastic(), providers, env,
+                new SimpleMeterRegistry());
+        // Normally injected from api.price-lookup.max-concurrency
+        ReflectionSupport.set(service, "priceLookupConcurrency", 8);
+        return service;
+    }
+}
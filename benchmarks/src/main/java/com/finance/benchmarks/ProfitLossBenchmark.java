@@ -0,0 +1,81 @@
+package com.finance.benchmarks;
+
+import com.finance.model.Position;
+import com.finance.model.Trade;
+import com.finance.service.LotAccountingEngine;
+import com.finance.service.PortfolioValuation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P&amp;L as computed for GET /trades, GET /trades/portfolio and GET /trades/pnl.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProfitLossBenchmark {
+
+    @Param({"10000", "100000"})
+    public int trades;
+
+    @Param({"50"})
+    public int symbols;
+
+    private List<Trade> tradeList;
+    private List<Position> positions;
+    private Map<String, BigDecimal> prices;
+    private final LotAccountingEngine lotAccountingEngine = new LotAccountingEngine();
+
+    @Setup
+    public void setUp() {
+        tradeList = Fixtures.trades(trades, symbols);
+        positions = Fixtures.positions(symbols);
+        prices = Fixtures.prices(symbols);
+    }
+
+    @Benchmark
+    public void applyCurrentPrices(Blackhole blackhole) {
+        for (Trade trade : tradeList) {
+            PortfolioValuation.applyCurrentPrice(trade, prices.get(trade.getSymbol()));
+        }
+        blackhole.consume(tradeList);
+    }
+
+    @Benchmark
+    public Map<String, Object> portfolioSummary() {
+        return PortfolioValuation.summarize(positions, prices);
+    }
+
+    @Benchmark
+    public Map<String, LotAccountingEngine.SymbolProfitLoss> lotAccountingFifo() {
+        return lotAccountingEngine.calculate(tradeList, LotAccountingEngine.CostMethod.FIFO, prices);
+    }
+
+    @Benchmark
+    public Map<String, LotAccountingEngine.SymbolProfitLoss> lotAccountingLifo() {
+        return lotAccountingEngine.calculate(tradeList, LotAccountingEngine.CostMethod.LIFO, prices);
+    }
+
+    @Benchmark
+    public Map<String, LotAccountingEngine.SymbolProfitLoss> lotAccountingAverage() {
+        return lotAccountingEngine.calculate(tradeList, LotAccountingEngine.CostMethod.AVERAGE, prices);
+    }
+}
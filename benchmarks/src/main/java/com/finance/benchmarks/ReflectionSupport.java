@@ -0,0 +1,34 @@
+package com.finance.benchmarks;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Does the field injection and init callbacks a Spring context would, for
+ * components benchmarked without one.
+ */
+final class ReflectionSupport {
+
+    private ReflectionSupport() {
+    }
+
+    static void set(Object target, String field, Object value) {
+        Field f = ReflectionUtils.findField(target.getClass(), field);
+        if (f == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no field " + field);
+        }
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, target, value);
+    }
+
+    static void invoke(Object target, String method) {
+        Method m = ReflectionUtils.findMethod(target.getClass(), method);
+        if (m == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no method " + method);
+        }
+        ReflectionUtils.makeAccessible(m);
+        ReflectionUtils.invokeMethod(m, target);
+    }
+}
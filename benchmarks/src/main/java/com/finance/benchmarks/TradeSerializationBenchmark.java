@@ -0,0 +1,85 @@
+package com.finance.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.finance.model.Trade;
+import com.finance.repository.TradeRepository;
+import com.finance.service.PortfolioValuation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a priced 10k-trade list with the ObjectMapper defaults Spring
+ * Boot configures, as whole entities and as the list projection GET /trades
+ * returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TradeSerializationBenchmark {
+
+    @Param({"10000"})
+    public int trades;
+
+    private List<Trade> tradeList;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<TradeRepository.TradeListItem> listItems;
+    private ObjectWriter listItemWriter;
+
+    @Setup
+    public void setUp() {
+        tradeList = Fixtures.trades(trades, 50);
+        Map<String, BigDecimal> prices = Fixtures.prices(50);
+        for (Trade trade : tradeList) {
+            PortfolioValuation.applyCurrentPrice(trade, prices.get(trade.getSymbol()));
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Trade.class));
+
+        listItems = new ArrayList<>(tradeList.size());
+        for (Trade trade : tradeList) {
+            listItems.add(PortfolioValuation.applyCurrentPrice(new TradeRepository.TradeListItem(trade.getId(),
+                    trade.getSymbol(), trade.getAssetType(), trade.getTradeType(), trade.getQuantity(),
+                    trade.getPricePerUnit(), trade.getTotalAmount(), trade.getFees(), trade.getTradeDate()),
+                    prices.get(trade.getSymbol())));
+        }
+        listItemWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, TradeRepository.TradeListItem.class));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tradeList);
+    }
+
+    @Benchmark
+    public byte[] typedListWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(tradeList);
+    }
+
+    @Benchmark
+    public byte[] listItemWriter() throws JsonProcessingException {
+        return listItemWriter.writeValueAsBytes(listItems);
+    }
+}
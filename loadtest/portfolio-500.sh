@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# 500 concurrent loops of GET /trades/portfolio against the stub provider,
+# reporting p99 and the server threads held while they run (see README).
+# Further arguments override these.
+#
+#   loadtest/portfolio-500.sh
+#   STUB_LATENCY_MS=200 loadtest/portfolio-500.sh --duration-seconds 120
+set -euo pipefail
+
+exec "$(dirname "$0")/run.sh" --mix portfolio=1 --concurrency 500 \
+  --users 50 --trades 200 --expenses 0 --goals 0 \
+  --warmup-seconds 10 --duration-seconds 60 "$@"
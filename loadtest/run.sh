@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Builds the server and the load generator, starts the server with synthetic
+# market data only, runs the load test against it and stops it again.
+# Arguments are passed to the load generator; run it with --help to list them.
+#
+#   loadtest/run.sh --users 50 --duration-seconds 120
+#
+# Set LOADTEST_BASE_URL to test an already running server instead.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+PORT="${LOADTEST_PORT:-18080}"
+OUT="$ROOT/loadtest/target"
+
+mvn -B -q -f "$ROOT/loadtest/pom.xml" package
+
+if [[ -n "${LOADTEST_BASE_URL:-}" ]]; then
+  exec java -jar "$OUT/loadtest.jar" --base-url "$LOADTEST_BASE_URL" --report "$OUT/loadtest-report.json" "$@"
+fi
+
+mvn -B -q -f "$ROOT/server/pom.xml" package -DskipTests
+
+# Stub prices with upstream-like latency; no calls leave the box
+export ALPHA_VANTAGE_ENABLED=false
+export COINGECKO_ENABLED=false
+export STUB_PROVIDER_ENABLED=true
+export STUB_LATENCY_MS="${STUB_LATENCY_MS:-80}"
+export STUB_LATENCY_JITTER_MS="${STUB_LATENCY_JITTER_MS:-120}"
+export STUB_ERROR_RATE="${STUB_ERROR_RATE:-0}"
+export PRICE_BACKFILL_ENABLED=false
+export METRICS_SCRAPE_PASSWORD="${METRICS_SCRAPE_PASSWORD:-loadtest}"
+export DATA_DIR="$OUT/data"
+rm -rf "$DATA_DIR"
+
+# The memory profile starts from an empty database; set LOADTEST_PROFILE=default for the file database
+java ${SERVER_JAVA_OPTS:-} -jar "$ROOT/server/target/finance-manager-1.0.0-exec.jar" \
+  --server.port="$PORT" --spring.profiles.active="${LOADTEST_PROFILE:-memory}" \
+  --app.price-history.dir="$DATA_DIR/prices" > "$OUT/server.log" 2>&1 &
+SERVER_PID=$!
+trap 'kill $SERVER_PID 2>/dev/null; wait $SERVER_PID 2>/dev/null || true' EXIT
+
+BASE_URL="http://localhost:$PORT/api"
+for _ in $(seq 1 120); do
+  if curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+    break
+  fi
+  if ! kill -0 "$SERVER_PID" 2>/dev/null; then
+    echo "Server failed to start; see $OUT/server.log" >&2
+    exit 1
+  fi
+  sleep 1
+done
+
+java -jar "$OUT/loadtest.jar" --base-url "$BASE_URL" --report "$OUT/loadtest-report.json" \
+  --metrics-credentials "${METRICS_SCRAPE_USERNAME:-prometheus}:$METRICS_SCRAPE_PASSWORD" "$@"
+
+# Server-side view of the same run
+curl -sf -u "${METRICS_SCRAPE_USERNAME:-prometheus}:$METRICS_SCRAPE_PASSWORD" "$BASE_URL/actuator/prometheus" > "$OUT/server-metrics.txt" || true
+echo "Server metrics written to $OUT/server-metrics.txt"
@@ -0,0 +1,142 @@
+package com.finance.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Thin client over the REST API. Connections are kept alive and shared by all
+ * request loops.
+ */
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Registers the user, or reuses the account when the name is taken from an
+     * earlier run, and logs in.
+     */
+    Session registerAndLogin(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> registered = post("/auth/register", null, Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", password));
+        boolean created = registered.statusCode() == 200;
+        if (!created && !registered.body().contains("already")) {
+            throw new IOException("Registering " + username + " failed: " + registered.statusCode() + " " + registered.body());
+        }
+
+        HttpResponse<String> login = post("/auth/login", null, Map.of(
+                "usernameOrEmail", username,
+                "password", password));
+        if (login.statusCode() != 200) {
+            throw new IOException("Login of " + username + " failed: " + login.statusCode() + " " + login.body());
+        }
+        return new Session(username, objectMapper.readTree(login.body()).get("accessToken").asText(), created);
+    }
+
+    /**
+     * Sends a batch request and fails unless every operation succeeded.
+     */
+    void batch(String path, String token, Object operations) throws IOException, InterruptedException {
+        HttpResponse<String> response = post(path, token, operations);
+        if (response.statusCode() != 200) {
+            throw new IOException("POST " + path + " failed: " + response.statusCode() + " " + response.body());
+        }
+        JsonNode summary = objectMapper.readTree(response.body());
+        if (summary.path("failed").asLong() > 0) {
+            throw new IOException("POST " + path + " rejected operations: " + response.body());
+        }
+    }
+
+    /**
+     * GETs the path and returns the status code, or -1 when no response came.
+     * The body is read fully and discarded, as a browser would.
+     */
+    int get(String path, String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * The Prometheus scrape, or null when it could not be read.
+     */
+    String prometheus(String credentials) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Authorization", "Basic "
+                        + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    boolean isUp() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    record Session(String username, String token, boolean created) {
+    }
+}
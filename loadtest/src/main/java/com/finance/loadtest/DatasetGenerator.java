@@ -0,0 +1,165 @@
+package com.finance.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded trades, expenses and goals as batch create operations. A user's data
+ * depends only on the seed and the user's index, so reruns seed the same rows.
+ */
+final class DatasetGenerator {
+
+    private record Instrument(String symbol, String assetType, double price) {
+    }
+
+    private static final Instrument[] INSTRUMENTS = {
+            new Instrument("AAPL", "STOCK", 150), new Instrument("MSFT", "STOCK", 300),
+            new Instrument("GOOGL", "STOCK", 2800), new Instrument("AMZN", "STOCK", 3300),
+            new Instrument("TSLA", "STOCK", 250), new Instrument("NVDA", "STOCK", 450),
+            new Instrument("META", "STOCK", 320), new Instrument("JPM", "STOCK", 150),
+            new Instrument("V", "STOCK", 240), new Instrument("KO", "STOCK", 60),
+            new Instrument("VTI", "ETF", 220), new Instrument("SPY", "ETF", 450),
+            new Instrument("QQQ", "ETF", 380), new Instrument("BTC", "CRYPTO", 45000),
+            new Instrument("ETH", "CRYPTO", 3000), new Instrument("ADA", "CRYPTO", 1.5),
+            new Instrument("DOT", "CRYPTO", 25)
+    };
+
+    private record Category(String name, double typicalAmount) {
+    }
+
+    private static final Category[] CATEGORIES = {
+            new Category("Groceries", 60), new Category("Dining", 35), new Category("Transport", 20),
+            new Category("Utilities", 120), new Category("Rent", 1400), new Category("Entertainment", 40),
+            new Category("Health", 80), new Category("Travel", 400), new Category("Shopping", 70)
+    };
+
+    private static final String[] GOALS = {
+            "Emergency fund", "House deposit", "Retirement", "New car", "Vacation", "Education", "Wedding"
+    };
+
+    private final long seed;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Trades over the last three years in date order. Each user holds a
+     * handful of instruments, prices follow a random walk, and sells never
+     * exceed the quantity held.
+     */
+    List<Map<String, Object>> trades(int user, int count) {
+        SplittableRandom random = random(user, 1);
+        int held = 3 + random.nextInt(6);
+        Instrument[] portfolio = new Instrument[held];
+        double[] prices = new double[held];
+        BigDecimal[] quantities = new BigDecimal[held];
+        for (int i = 0; i < held; i++) {
+            portfolio[i] = INSTRUMENTS[random.nextInt(INSTRUMENTS.length)];
+            prices[i] = portfolio[i].price() * random.nextDouble(0.6, 1.1);
+            quantities[i] = BigDecimal.ZERO;
+        }
+
+        List<LocalDateTime> dates = sortedDates(random, count, 3 * 365);
+        List<Map<String, Object>> operations = new ArrayList<>(count);
+        for (LocalDateTime date : dates) {
+            int i = random.nextInt(held);
+            prices[i] = Math.max(0.01, prices[i] * (1 + random.nextDouble(-0.04, 0.045)));
+            Instrument instrument = portfolio[i];
+
+            // Roughly the same money per trade whatever the unit price
+            BigDecimal quantity = BigDecimal.valueOf(random.nextDouble(200, 5000) / prices[i])
+                    .setScale(instrument.assetType().equals("CRYPTO") ? 6 : 0, RoundingMode.DOWN)
+                    .max(instrument.assetType().equals("CRYPTO") ? new BigDecimal("0.01") : BigDecimal.ONE);
+            boolean sell = quantities[i].signum() > 0 && random.nextInt(4) == 0;
+            if (sell) {
+                quantity = quantity.min(quantities[i]);
+                if (quantity.compareTo(new BigDecimal("0.01")) < 0) {
+                    sell = false;
+                    quantity = new BigDecimal("0.01");
+                }
+            }
+            quantities[i] = sell ? quantities[i].subtract(quantity) : quantities[i].add(quantity);
+
+            Map<String, Object> trade = new LinkedHashMap<>();
+            trade.put("symbol", instrument.symbol());
+            trade.put("assetType", instrument.assetType());
+            trade.put("tradeType", sell ? "SELL" : "BUY");
+            trade.put("quantity", quantity);
+            trade.put("pricePerUnit", BigDecimal.valueOf(prices[i]).setScale(2, RoundingMode.HALF_UP).max(new BigDecimal("0.01")));
+            trade.put("fees", BigDecimal.valueOf(random.nextInt(500), 2));
+            trade.put("tradeDate", date.toString());
+            operations.add(create(trade));
+        }
+        return operations;
+    }
+
+    /**
+     * Expenses over the last two years, weighted towards everyday categories.
+     */
+    List<Map<String, Object>> expenses(int user, int count) {
+        SplittableRandom random = random(user, 2);
+        List<LocalDateTime> dates = sortedDates(random, count, 2 * 365);
+        List<Map<String, Object>> operations = new ArrayList<>(count);
+        for (LocalDateTime date : dates) {
+            // Low indexes (groceries, dining, transport) come up most often
+            Category category = CATEGORIES[(int) (CATEGORIES.length * Math.pow(random.nextDouble(), 2))];
+            double amount = category.typicalAmount() * Math.exp(random.nextDouble(-0.7, 0.7));
+
+            Map<String, Object> expense = new LinkedHashMap<>();
+            expense.put("description", category.name() + " #" + random.nextInt(1000));
+            expense.put("amount", BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).max(new BigDecimal("0.01")));
+            expense.put("category", category.name());
+            expense.put("expenseDate", date.toString());
+            operations.add(create(expense));
+        }
+        return operations;
+    }
+
+    List<Map<String, Object>> goals(int user, int count) {
+        SplittableRandom random = random(user, 3);
+        List<Map<String, Object>> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal target = BigDecimal.valueOf(1000L * (1 + random.nextInt(200)));
+            Map<String, Object> goal = new LinkedHashMap<>();
+            goal.put("name", GOALS[random.nextInt(GOALS.length)] + " " + (i + 1));
+            goal.put("description", "Seeded by the load test");
+            goal.put("targetAmount", target);
+            goal.put("currentAmount", target.multiply(BigDecimal.valueOf(random.nextDouble())).setScale(2, RoundingMode.HALF_UP));
+            goal.put("targetDate", now.plusDays(30 + random.nextInt(3650)).toString());
+            goal.put("status", random.nextInt(10) == 0 ? "COMPLETED" : "ACTIVE");
+            operations.add(create(goal));
+        }
+        return operations;
+    }
+
+    private SplittableRandom random(int user, int stream) {
+        return new SplittableRandom(seed * 31 + user * 7L + stream);
+    }
+
+    private List<LocalDateTime> sortedDates(SplittableRandom random, int count, int days) {
+        long span = days * 24L * 60;
+        List<LocalDateTime> dates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dates.add(now.minusMinutes(1 + random.nextLong(span)));
+        }
+        dates.sort(null);
+        return dates;
+    }
+
+    private static Map<String, Object> create(Map<String, Object> data) {
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("op", "create");
+        operation.put("data", data);
+        return operation;
+    }
+}
@@ -0,0 +1,28 @@
+package com.finance.loadtest;
+
+/**
+ * Read endpoints the traffic mix draws from.
+ */
+enum Endpoint {
+    TRADES("trades", "/trades"),
+    PORTFOLIO("portfolio", "/trades/portfolio"),
+    EXPENSES_SUMMARY("expenses-summary", "/expenses/summary"),
+    GOALS("goals", "/goals");
+
+    final String key;
+    final String path;
+
+    Endpoint(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+}
@@ -0,0 +1,219 @@
+package com.finance.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registers synthetic users, seeds their trades, expenses and goals through
+ * the batch endpoints, then drives a weighted mix of read endpoints and
+ * reports throughput and latency percentiles per endpoint.
+ *
+ * Without --rate every loop sends its next request as soon as the previous
+ * one returns. With --rate requests are scheduled at a fixed total rate and
+ * latency is measured from the scheduled start, so a stalled server shows up
+ * in the percentiles instead of just slowing the generator down.
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-secret";
+    private static final int BATCH_SIZE = 500;
+
+    private final LoadTestOptions options;
+    private final ApiClient client;
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.client = new ApiClient(options.baseUrl);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (List.of(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+
+    void run() throws Exception {
+        if (!client.isUp()) {
+            throw new IllegalStateException("No healthy server at " + options.baseUrl);
+        }
+
+        long seedStart = System.nanoTime();
+        List<ApiClient.Session> sessions = seedUsers();
+        System.out.printf("Seeded %d users in %.1f s%n", sessions.size(), (System.nanoTime() - seedStart) / 1e9);
+
+        if (options.warmupSeconds > 0) {
+            System.out.printf("Warming up for %d s%n", options.warmupSeconds);
+            drive(sessions, options.warmupSeconds);
+        }
+        System.out.printf("Measuring for %d s with %d loops%s%n", options.durationSeconds, options.concurrency,
+                options.rate > 0 ? " at " + options.rate + " req/s" : "");
+        ServerThreadSampler sampler = null;
+        if (options.metricsCredentials != null) {
+            sampler = new ServerThreadSampler(client, options.metricsCredentials);
+            sampler.start();
+        }
+        Map<Endpoint, LatencyRecorder> recorders = drive(sessions, options.durationSeconds);
+        Map<String, Map<String, Number>> serverThreads = sampler != null ? sampler.stop() : Map.of();
+
+        Map<String, LatencyRecorder.Snapshot> results = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint.key, recorder.snapshot(options.durationSeconds)));
+        printReport(results, serverThreads);
+        writeReport(results, serverThreads);
+    }
+
+    private List<ApiClient.Session> seedUsers() throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(options.seed);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(options.users, 8));
+        try {
+            List<Future<ApiClient.Session>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users; i++) {
+                int user = i;
+                futures.add(pool.submit(() -> {
+                    ApiClient.Session session = client.registerAndLogin(options.userPrefix + user, PASSWORD);
+                    if (session.created()) {
+                        // Accounts left by an earlier run keep the data seeded then
+                        seed(session, "/trades/batch", generator.trades(user, options.tradesPerUser));
+                        seed(session, "/expenses/batch", generator.expenses(user, options.expensesPerUser));
+                        seed(session, "/goals/batch", generator.goals(user, options.goalsPerUser));
+                    }
+                    return session;
+                }));
+            }
+            List<ApiClient.Session> sessions = new ArrayList<>();
+            for (Future<ApiClient.Session> future : futures) {
+                sessions.add(future.get());
+            }
+            return sessions;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void seed(ApiClient.Session session, String path, List<Map<String, Object>> operations) throws Exception {
+        for (int from = 0; from < operations.size(); from += BATCH_SIZE) {
+            client.batch(path, session.token(), operations.subList(from, Math.min(operations.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private Map<Endpoint, LatencyRecorder> drive(List<ApiClient.Session> sessions, int seconds) throws Exception {
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        Endpoint[] weighted = weightedEndpoints();
+        for (Endpoint endpoint : options.mix.keySet()) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long intervalNanos = options.rate > 0 ? (long) (1e9 / options.rate) : 0;
+        AtomicLong scheduled = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            List<Future<?>> loops = new ArrayList<>();
+            for (int loop = 0; loop < options.concurrency; loop++) {
+                SplittableRandom random = new SplittableRandom(options.seed + 1000 + loop);
+                loops.add(pool.submit(() -> {
+                    while (true) {
+                        long startedAt;
+                        if (intervalNanos > 0) {
+                            startedAt = start + scheduled.getAndIncrement() * intervalNanos;
+                            if (startedAt >= end) {
+                                return;
+                            }
+                            long wait = startedAt - System.nanoTime();
+                            if (wait > 0) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        } else {
+                            startedAt = System.nanoTime();
+                            if (startedAt >= end) {
+                                return;
+                            }
+                        }
+
+                        Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                        ApiClient.Session session = sessions.get(random.nextInt(sessions.size()));
+                        int status = client.get(endpoint.path, session.token());
+                        recorders.get(endpoint).record(System.nanoTime() - startedAt, status);
+                    }
+                }));
+            }
+            for (Future<?> loop : loops) {
+                loop.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private Endpoint[] weightedEndpoints() {
+        List<Endpoint> weighted = new ArrayList<>();
+        options.mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        return weighted.toArray(new Endpoint[0]);
+    }
+
+    private void printReport(Map<String, LatencyRecorder.Snapshot> results,
+                             Map<String, Map<String, Number>> serverThreads) {
+        System.out.printf("%n%-18s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, LatencyRecorder.Snapshot> entry : results.entrySet()) {
+            LatencyRecorder.Snapshot s = entry.getValue();
+            requests += s.requests();
+            errors += s.errors();
+            System.out.printf("%-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    s.requests(), s.errors(), s.throughput(), s.p50(), s.p90(), s.p99(), s.p999(), s.max());
+        }
+        System.out.printf("%-18s %9d %7d %9.1f%n", "total", requests, errors, requests / (double) options.durationSeconds);
+
+        if (!serverThreads.isEmpty()) {
+            System.out.printf("%n%-32s %9s %9s%n", "server threads", "max", "mean");
+            serverThreads.forEach((gauge, s) -> System.out.printf("%-32s %9.0f %9.1f%n",
+                    gauge, s.get("max").doubleValue(), s.get("mean").doubleValue()));
+        }
+    }
+
+    private void writeReport(Map<String, LatencyRecorder.Snapshot> results,
+                             Map<String, Map<String, Number>> serverThreads) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", options.describe());
+        report.put("endpoints", results);
+        if (!serverThreads.isEmpty()) {
+            report.put("serverThreads", serverThreads);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.report), report);
+        System.out.println("Report written to " + options.report);
+    }
+}
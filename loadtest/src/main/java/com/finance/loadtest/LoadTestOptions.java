@@ -0,0 +1,139 @@
+package com.finance.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line settings, given as {@code --name value} or {@code --name=value}.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = """
+            Usage: java -jar loadtest.jar [options]
+              --base-url URL          API root (default http://localhost:8080/api)
+              --users N               synthetic users to register (default 20)
+              --user-prefix NAME      username prefix (default load)
+              --trades N              trades seeded per user (default 500)
+              --expenses N            expenses seeded per user (default 1000)
+              --goals N               goals seeded per user (default 10)
+              --concurrency N         concurrent request loops (default 16)
+              --rate N                total requests per second, 0 for as fast as possible (default 0)
+              --warmup-seconds N      traffic before measuring (default 10)
+              --duration-seconds N    measured traffic (default 60)
+              --mix SPEC              endpoint weights (default trades=30,portfolio=30,expenses-summary=25,goals=15)
+              --seed N                dataset and traffic seed (default 42)
+              --report FILE           JSON report path (default loadtest-report.json)
+              --metrics-credentials USER:PASSWORD
+                                      sample server threads from /actuator/prometheus while measuring
+            """;
+
+    final String baseUrl;
+    final int users;
+    final String userPrefix;
+    final int tradesPerUser;
+    final int expensesPerUser;
+    final int goalsPerUser;
+    final int concurrency;
+    final double rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final Map<Endpoint, Integer> mix;
+    final long seed;
+    final String report;
+    final String metricsCredentials;
+
+    private LoadTestOptions(Map<String, String> values) {
+        baseUrl = stripTrailingSlash(values.getOrDefault("base-url", "http://localhost:8080/api"));
+        users = positive(values, "users", 20);
+        userPrefix = values.getOrDefault("user-prefix", "load");
+        tradesPerUser = nonNegative(values, "trades", 500);
+        expensesPerUser = nonNegative(values, "expenses", 1000);
+        goalsPerUser = nonNegative(values, "goals", 10);
+        concurrency = positive(values, "concurrency", 16);
+        rate = Double.parseDouble(values.getOrDefault("rate", "0"));
+        warmupSeconds = nonNegative(values, "warmup-seconds", 10);
+        durationSeconds = positive(values, "duration-seconds", 60);
+        mix = parseMix(values.getOrDefault("mix", "trades=30,portfolio=30,expenses-summary=25,goals=15"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        report = values.getOrDefault("report", "loadtest-report.json");
+        metricsCredentials = values.get("metrics-credentials");
+        if (metricsCredentials != null && metricsCredentials.indexOf(':') < 1) {
+            throw new IllegalArgumentException("--metrics-credentials must be USER:PASSWORD");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        return new LoadTestOptions(values);
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", baseUrl);
+        settings.put("users", users);
+        settings.put("tradesPerUser", tradesPerUser);
+        settings.put("expensesPerUser", expensesPerUser);
+        settings.put("goalsPerUser", goalsPerUser);
+        settings.put("concurrency", concurrency);
+        settings.put("rate", rate);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((endpoint, weight) -> weights.put(endpoint.key, weight));
+        settings.put("mix", weights);
+        settings.put("seed", seed);
+        return settings;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] keyValue = part.trim().split("=");
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(keyValue[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.fromKey(keyValue[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return mix;
+    }
+
+    private static int positive(Map<String, String> values, String name, int defaultValue) {
+        int value = nonNegative(values, name, defaultValue);
+        if (value == 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    private static int nonNegative(Map<String, String> values, String name, int defaultValue) {
+        int value = values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+        if (value < 0) {
+            throw new IllegalArgumentException("--" + name + " must not be negative");
+        }
+        return value;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,88 @@
+package com.finance.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the server's Prometheus scrape while the load runs and keeps the
+ * peak and mean of its thread gauges. A scrape after the run only shows the
+ * idle server; sampling shows how many threads the load actually held.
+ * Scrapes queue behind the load like any request, so a saturated server is
+ * sampled less often than every INTERVAL_MS.
+ */
+final class ServerThreadSampler {
+
+    static final List<String> GAUGES = List.of(
+            "jvm_threads_live_threads", "tomcat_threads_busy_threads", "tomcat_threads_current_threads");
+
+    private static final long INTERVAL_MS = 250;
+
+    private final ApiClient client;
+    private final String credentials;
+    private final Map<String, double[]> stats = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    ServerThreadSampler(ApiClient client, String credentials) {
+        this.client = client;
+        this.credentials = credentials;
+    }
+
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::sample, 0, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling and returns, per gauge, the peak, the mean and the
+     * number of samples.
+     */
+    Map<String, Map<String, Number>> stop() throws InterruptedException {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        Map<String, Map<String, Number>> result = new LinkedHashMap<>();
+        synchronized (this) {
+            for (String gauge : GAUGES) {
+                double[] s = stats.get(gauge);
+                if (s == null) {
+                    continue;
+                }
+                Map<String, Number> summary = new LinkedHashMap<>();
+                summary.put("max", s[0]);
+                summary.put("mean", s[1] / s[2]);
+                summary.put("samples", (long) s[2]);
+                result.put(gauge, summary);
+            }
+        }
+        return result;
+    }
+
+    private void sample() {
+        String scrape = client.prometheus(credentials);
+        if (scrape == null) {
+            return;
+        }
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (String line : scrape.split("\n")) {
+            for (String gauge : GAUGES) {
+                // Name, optional {labels}, value; a gauge with several label sets is summed
+                if (line.startsWith(gauge) && (line.charAt(gauge.length()) == ' ' || line.charAt(gauge.length()) == '{')) {
+                    double value = Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                    values.merge(gauge, value, Double::sum);
+                }
+            }
+        }
+        synchronized (this) {
+            values.forEach((gauge, value) -> {
+                double[] s = stats.computeIfAbsent(gauge, g -> new double[] {Double.NEGATIVE_INFINITY, 0, 0});
+                s[0] = Math.max(s[0], value);
+                s[1] += value;
+                s[2]++;
+            });
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.finance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Chooses where blocking work (JPA reads, BCrypt) runs when a handler hands it
+ * off. With spring.threads.virtual.enabled on a Java 21 runtime, Tomcat and
+ * this scheduler both use virtual threads; otherwise the platform-thread
+ * bounded elastic pool is used.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualThreadScheduler(@Value("${app.execution.blocking-concurrency:256}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("blocking-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return Schedulers.fromExecutor(executor);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler platformThreadScheduler() {
+        return Schedulers.boundedElastic();
+    }
+}
@@ -1,18 +1,24 @@
 package com.finance.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.*;
@@ -28,6 +34,12 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.metrics.scrape-username}")
+    private String scrapeUsername;
+
+    @Value("${app.metrics.scrape-password}")
+    private String scrapePassword;
+
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
                           UserDetailsService userDetailsService) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
@@ -39,8 +51,10 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
+            .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll() // async handlers were authorized on the initial dispatch
             .requestMatchers("/auth/**").permitAll()   // your login/register
             .requestMatchers("/h2-console/**").permitAll() // ✅ allow H2 console
+            .requestMatchers("/actuator/health").permitAll() // probes carry no token
             .anyRequest().authenticated()
         )
         .sessionManagement(session -> session
@@ -55,6 +69,41 @@ public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     return http.build();
 }
 
+    /**
+     * The Prometheus and metrics endpoints take HTTP basic credentials of a
+     * dedicated scrape user instead of a user token, and refuse every request
+     * while no scrape password is configured.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"))
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(scrapeAuthenticationManager())
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            );
+        return http.build();
+    }
+
+    private AuthenticationManager scrapeAuthenticationManager() {
+        if (scrapePassword.isBlank()) {
+            return authentication -> {
+                throw new BadCredentialsException("No scrape user configured");
+            };
+        }
+        DaoAuthenticationProvider p = new DaoAuthenticationProvider();
+        p.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                .password(passwordEncoder().encode(scrapePassword))
+                .roles("METRICS")
+                .build()));
+        p.setPasswordEncoder(passwordEncoder());
+        return new ProviderManager(p);
+    }
+
     @Bean
     public AuthenticationProvider daoAuthProvider() {
         DaoAuthenticationProvider p = new DaoAuthenticationProvider();
@@ -4,6 +4,7 @@ import com.finance.model.User;
 import com.finance.repository.UserRepository;
 import com.finance.security.JwtTokenProvider;
 import com.finance.security.UserPrincipal;
+import com.finance.security.UserPrincipalCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +35,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -75,6 +79,9 @@ public class AuthController {
         user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
 
         User result = userRepository.save(user);
+        // Drop anything cached under a name or email that now belongs to this account
+        principalCache.invalidate(result.getUsername());
+        principalCache.invalidate(result.getEmail());
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User registered successfully");
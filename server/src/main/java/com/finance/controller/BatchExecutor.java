@@ -0,0 +1,146 @@
+package com.finance.controller;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of batch operations to one entity type inside the caller's
+ * transaction. Every update and delete target is loaded with a single IN
+ * query scoped to the caller, so foreign rows are never read; invalid or
+ * foreign items are reported and skipped without failing the rest of the
+ * batch. The entity constraints mirror the column limits, so an item the
+ * database would reject at the final flush fails validation here instead.
+ */
+class BatchExecutor<T, E> {
+
+    private final JpaRepository<E, Long> repository;
+    private final Validator validator;
+    private final Function<E, Long> idOf;
+    private final BiFunction<Collection<Long>, Long, List<E>> findOwned;
+    private final Function<T, E> build;
+    private final BiConsumer<E, T> apply;
+    private Consumer<E> beforeChange = entity -> { };
+    private Consumer<E> afterChange = entity -> { };
+
+    /**
+     * @param findOwned loads the entities with the given ids that belong to
+     *                  the given user
+     * @param build creates a new, unsaved entity from request data; also used
+     *              to validate update data before it touches the stored row
+     * @param apply copies request data onto a stored entity
+     */
+    BatchExecutor(JpaRepository<E, Long> repository, Validator validator,
+                  Function<E, Long> idOf, BiFunction<Collection<Long>, Long, List<E>> findOwned,
+                  Function<T, E> build, BiConsumer<E, T> apply) {
+        this.repository = repository;
+        this.validator = validator;
+        this.idOf = idOf;
+        this.findOwned = findOwned;
+        this.build = build;
+        this.apply = apply;
+    }
+
+    /** Called with a stored entity before it is updated or deleted. */
+    BatchExecutor<T, E> beforeChange(Consumer<E> listener) {
+        this.beforeChange = listener;
+        return this;
+    }
+
+    /** Called with an entity after it is created or updated. */
+    BatchExecutor<T, E> afterChange(Consumer<E> listener) {
+        this.afterChange = listener;
+        return this;
+    }
+
+    BatchOperation.Summary execute(Long userId, List<? extends BatchOperation<T>> operations) {
+        Set<Long> targetIds = operations.stream()
+                .filter(operation -> operation.getOp() != BatchOperation.Op.CREATE && operation.getId() != null)
+                .map(BatchOperation::getId)
+                .collect(Collectors.toSet());
+
+        Map<Long, E> targets = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (E entity : findOwned.apply(targetIds, userId)) {
+                targets.put(idOf.apply(entity), entity);
+            }
+        }
+
+        List<BatchOperation.Result> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(executeOne(index, operations.get(index), targets));
+        }
+
+        // Inserts, updates and deletes go out as JDBC batches here
+        repository.flush();
+        return BatchOperation.Summary.of(results);
+    }
+
+    private BatchOperation.Result executeOne(int index, BatchOperation<T> operation, Map<Long, E> targets) {
+        if (operation == null || operation.getOp() == null) {
+            return BatchOperation.Result.failed(index, "invalid", null, "op is required");
+        }
+
+        if (operation.getOp() == BatchOperation.Op.CREATE) {
+            if (operation.getData() == null) {
+                return BatchOperation.Result.failed(index, "invalid", null, "data is required");
+            }
+            E entity = build.apply(operation.getData());
+            String violations = validate(entity);
+            if (violations != null) {
+                return BatchOperation.Result.failed(index, "invalid", null, violations);
+            }
+            E saved = repository.save(entity);
+            afterChange.accept(saved);
+            return BatchOperation.Result.ok(index, "created", idOf.apply(saved));
+        }
+
+        // Foreign rows are reported exactly like missing ones
+        E target = operation.getId() != null ? targets.get(operation.getId()) : null;
+        if (target == null) {
+            return BatchOperation.Result.failed(index, "not_found", operation.getId(), "not found");
+        }
+
+        if (operation.getOp() == BatchOperation.Op.DELETE) {
+            beforeChange.accept(target);
+            repository.delete(target);
+            targets.remove(operation.getId());
+            return BatchOperation.Result.ok(index, "deleted", operation.getId());
+        }
+
+        if (operation.getData() == null) {
+            return BatchOperation.Result.failed(index, "invalid", operation.getId(), "data is required");
+        }
+        String violations = validate(build.apply(operation.getData()));
+        if (violations != null) {
+            return BatchOperation.Result.failed(index, "invalid", operation.getId(), violations);
+        }
+        beforeChange.accept(target);
+        apply.accept(target, operation.getData());
+        afterChange.accept(target);
+        return BatchOperation.Result.ok(index, "updated", operation.getId());
+    }
+
+    private String validate(E entity) {
+        Set<ConstraintViolation<E>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.controller;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One entry of a batch request: {@code create} carries data, {@code update}
+ * carries an id and data, {@code delete} carries an id. Controllers bind a
+ * concrete subclass per request type so the data type survives request body
+ * conversion.
+ */
+public class BatchOperation<T> {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    private Op op;
+    private Long id;
+    private T data;
+
+    public enum Op {
+        CREATE, UPDATE, DELETE;
+
+        @JsonCreator
+        public static Op from(String value) {
+            return Op.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Outcome of the operation at {@code index} in the request.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(int index, String status, Long id, String error) {
+
+        static Result ok(int index, String status, Long id) {
+            return new Result(index, status, id, null);
+        }
+
+        static Result failed(int index, String status, Long id, String error) {
+            return new Result(index, status, id, error);
+        }
+
+        boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    public record Summary(long succeeded, long failed, List<Result> results) {
+
+        static Summary of(List<Result> results) {
+            long succeeded = results.stream().filter(Result::succeeded).count();
+            return new Summary(succeeded, results.size() - succeeded, results);
+        }
+    }
+
+    // Getters and Setters
+    public Op getOp() {
+        return op;
+    }
+
+    public void setOp(Op op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+}
@@ -6,13 +6,27 @@ import com.finance.repository.ExpenseRepository;
 import com.finance.repository.UserRepository;
 import com.finance.security.CurrentUser;
 import com.finance.security.UserPrincipal;
+import com.finance.service.BulkImportService;
+import com.finance.service.EntityStreamer;
+import com.finance.service.ExpenseRollupService;
+import com.finance.service.TabularExporter;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,23 +36,120 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class ExpenseController {
 
+    private static final List<TabularExporter.Column<Expense>> EXPORT_COLUMNS = List.of(
+            new TabularExporter.Column<>("Date", Expense::getExpenseDate),
+            new TabularExporter.Column<>("Description", Expense::getDescription),
+            new TabularExporter.Column<>("Category", Expense::getCategory),
+            new TabularExporter.Column<>("Amount", Expense::getAmount),
+            new TabularExporter.Column<>("Notes", Expense::getNotes));
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityStreamer entityStreamer;
+
+    @Autowired
+    private TabularExporter tabularExporter;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses(@CurrentUser UserPrincipal currentUser) {
-        List<Expense> expenses = expenseRepository.findByUserIdOrderByExpenseDateDesc(currentUser.getId());
+    public ResponseEntity<List<ExpenseRepository.ExpenseListItem>> getAllExpenses(@CurrentUser UserPrincipal currentUser) {
+        List<ExpenseRepository.ExpenseListItem> expenses = expenseRepository.findListItems(currentUser.getId());
         return ResponseEntity.ok(expenses);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getExpensePage(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @CurrentUser UserPrincipal currentUser) {
+        int pageSize = PageCursor.clampLimit(limit);
+        List<Expense> expenses;
+        try {
+            expenses = cursor == null
+                    ? expenseRepository.findFirstPage(currentUser.getId(), Limit.of(pageSize + 1))
+                    : findPageAfter(currentUser.getId(), PageCursor.decode(cursor), pageSize + 1);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // One extra row tells us whether another page exists
+        boolean hasMore = expenses.size() > pageSize;
+        if (hasMore) {
+            expenses = expenses.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", expenses);
+        if (hasMore) {
+            Expense last = expenses.get(expenses.size() - 1);
+            page.put("nextCursor", new PageCursor(last.getExpenseDate(), last.getId()).encode());
+        } else {
+            page.put("nextCursor", null);
+        }
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(@CurrentUser UserPrincipal currentUser) {
+        Long userId = currentUser.getId();
+        StreamingResponseBody body = entityStreamer.ndjson(
+                () -> expenseRepository.streamByUserId(userId), Expense.class, expense -> { });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@RequestParam(defaultValue = "xlsx") String format,
+                                                                @CurrentUser UserPrincipal currentUser) {
+        TabularExporter.Format exportFormat;
+        try {
+            exportFormat = TabularExporter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = currentUser.getId();
+        StreamingResponseBody body = tabularExporter.export(exportFormat, "Expenses",
+                () -> expenseRepository.streamByUserId(userId), EXPORT_COLUMNS);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"expenses." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importExpenses(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(required = false) String format,
+                                           @RequestParam(defaultValue = "OTHER") String defaultCategory,
+                                           @CurrentUser UserPrincipal currentUser) throws IOException {
+        try {
+            BulkImportService.Format importFormat = BulkImportService.Format.resolve(format, file.getOriginalFilename());
+            return ResponseEntity.ok(bulkImportService.importExpenses(currentUser.getId(), file, importFormat, defaultCategory));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Expense> getExpenseById(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<Expense> expense = expenseRepository.findById(id);
+        Optional<Expense> expense = expenseRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (expense.isPresent() && expense.get().getUser().getId().equals(currentUser.getId())) {
+        if (expense.isPresent()) {
             return ResponseEntity.ok(expense.get());
         }
         
@@ -46,40 +157,37 @@ public class ExpenseController {
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Expense> createExpense(@Valid @RequestBody ExpenseRequest expenseRequest, 
                                                @CurrentUser UserPrincipal currentUser) {
-        User user = userRepository.findById(currentUser.getId()).orElse(null);
-        if (user == null) {
-            return ResponseEntity.badRequest().build();
-        }
+        // The authenticated user exists; a reference attaches it without a select
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         Expense expense = new Expense();
         expense.setUser(user);
-        expense.setDescription(expenseRequest.getDescription());
-        expense.setAmount(expenseRequest.getAmount());
-        expense.setCategory(expenseRequest.getCategory());
-        expense.setNotes(expenseRequest.getNotes());
-        expense.setExpenseDate(expenseRequest.getExpenseDate() != null ? expenseRequest.getExpenseDate() : LocalDateTime.now());
+        applyRequest(expense, expenseRequest);
 
         Expense savedExpense = expenseRepository.save(expense);
+        expenseRollupService.expenseAdded(currentUser.getId(), savedExpense);
         return ResponseEntity.ok(savedExpense);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Expense> updateExpense(@PathVariable Long id, 
                                                @Valid @RequestBody ExpenseRequest expenseRequest,
                                                @CurrentUser UserPrincipal currentUser) {
-        Optional<Expense> existingExpense = expenseRepository.findById(id);
+        Optional<Expense> existingExpense = expenseRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (existingExpense.isPresent() && existingExpense.get().getUser().getId().equals(currentUser.getId())) {
+        if (existingExpense.isPresent()) {
             Expense expense = existingExpense.get();
-            expense.setDescription(expenseRequest.getDescription());
-            expense.setAmount(expenseRequest.getAmount());
-            expense.setCategory(expenseRequest.getCategory());
-            expense.setNotes(expenseRequest.getNotes());
-            expense.setExpenseDate(expenseRequest.getExpenseDate() != null ? expenseRequest.getExpenseDate() : LocalDateTime.now());
+            LocalDateTime previousDate = expense.getExpenseDate();
+            String previousCategory = expense.getCategory();
+            BigDecimal previousAmount = expense.getAmount();
+            applyRequest(expense, expenseRequest);
 
-            Expense updatedExpense = expenseRepository.save(expense);
+            Expense updatedExpense = expenseRepository.saveAndFlush(expense);
+            expenseRollupService.expenseUpdated(currentUser.getId(), previousDate, previousCategory, previousAmount, updatedExpense);
             return ResponseEntity.ok(updatedExpense);
         }
         
@@ -87,23 +195,56 @@ public class ExpenseController {
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteExpense(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<Expense> expense = expenseRepository.findById(id);
+        Optional<Expense> expense = expenseRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (expense.isPresent() && expense.get().getUser().getId().equals(currentUser.getId())) {
+        if (expense.isPresent()) {
             expenseRepository.delete(expense.get());
+            expenseRepository.flush();
+            expenseRollupService.expenseRemoved(currentUser.getId(), expense.get());
             return ResponseEntity.ok().build();
         }
         
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Applies up to {@link BatchOperation#MAX_OPERATIONS} creates, updates and
+     * deletes in one transaction and reports the outcome of each.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> batchExpenses(@RequestBody List<ExpenseBatchOperation> operations,
+                                           @CurrentUser UserPrincipal currentUser) {
+        if (operations.size() > BatchOperation.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest().body("At most " + BatchOperation.MAX_OPERATIONS + " operations per batch");
+        }
+
+        Long userId = currentUser.getId();
+        User user = userRepository.getReferenceById(userId);
+        List<ExpenseRollupService.Change> rollupChanges = new ArrayList<>();
+        BatchOperation.Summary summary = new BatchExecutor<ExpenseRequest, Expense>(expenseRepository, validator,
+                Expense::getId, expenseRepository::findByIdInAndUserId,
+                request -> {
+                    Expense expense = new Expense();
+                    expense.setUser(user);
+                    applyRequest(expense, request);
+                    return expense;
+                },
+                this::applyRequest)
+                .beforeChange(expense -> rollupChanges.add(ExpenseRollupService.Change.removed(expense)))
+                .afterChange(expense -> rollupChanges.add(ExpenseRollupService.Change.added(expense)))
+                .execute(userId, operations);
+
+        expenseRollupService.expensesChanged(userId, rollupChanges);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getExpenseSummary(@CurrentUser UserPrincipal currentUser) {
-        BigDecimal totalExpenses = expenseRepository.getTotalExpenses(currentUser.getId());
-        List<Object[]> expensesByCategory = expenseRepository.getExpensesByCategory(currentUser.getId());
-        
-        if (totalExpenses == null) totalExpenses = BigDecimal.ZERO;
+        BigDecimal totalExpenses = expenseRollupService.getTotalExpenses(currentUser.getId());
+        List<Object[]> expensesByCategory = expenseRollupService.getExpensesByCategory(currentUser.getId());
         
         Map<String, Object> summary = Map.of(
             "totalExpenses", totalExpenses,
@@ -113,13 +254,56 @@ public class ExpenseController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/total")
+    public ResponseEntity<Map<String, Object>> getTotalByDateRange(@RequestParam LocalDateTime startDate,
+                                                                   @RequestParam LocalDateTime endDate,
+                                                                   @CurrentUser UserPrincipal currentUser) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        BigDecimal total = expenseRollupService.getTotalExpenses(currentUser.getId(), startDate, endDate);
+
+        Map<String, Object> result = Map.of(
+            "startDate", startDate,
+            "endDate", endDate,
+            "totalExpenses", total
+        );
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups(@CurrentUser UserPrincipal currentUser) {
+        List<String> mismatches = expenseRollupService.rebuild(currentUser.getId());
+
+        Map<String, Object> result = Map.of(
+            "consistent", mismatches.isEmpty(),
+            "mismatches", mismatches
+        );
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Expense>> getExpensesByCategory(@PathVariable String category, 
-                                                             @CurrentUser UserPrincipal currentUser) {
-        List<Expense> expenses = expenseRepository.findByUserIdAndCategoryOrderByExpenseDateDesc(currentUser.getId(), category);
+    public ResponseEntity<List<ExpenseRepository.ExpenseListItem>> getExpensesByCategory(@PathVariable String category, 
+                                                                                        @CurrentUser UserPrincipal currentUser) {
+        List<ExpenseRepository.ExpenseListItem> expenses = expenseRepository.findListItemsByCategory(currentUser.getId(), category);
         return ResponseEntity.ok(expenses);
     }
 
+    private List<Expense> findPageAfter(Long userId, PageCursor cursor, int limit) {
+        return expenseRepository.findPageAfter(userId, cursor.date(), cursor.id(), Limit.of(limit));
+    }
+
+    private void applyRequest(Expense expense, ExpenseRequest request) {
+        expense.setDescription(request.getDescription());
+        expense.setAmount(request.getAmount());
+        expense.setCategory(request.getCategory());
+        expense.setNotes(request.getNotes());
+        expense.setExpenseDate(request.getExpenseDate() != null ? request.getExpenseDate() : LocalDateTime.now());
+    }
+
     // Request class
     public static class ExpenseRequest {
         private String description;
@@ -169,4 +353,7 @@ public class ExpenseController {
             this.expenseDate = expenseDate;
         }
     }
-} 
\ No newline at end of file
+
+    public static class ExpenseBatchOperation extends BatchOperation<ExpenseRequest> {
+    }
+}
@@ -7,8 +7,10 @@ import com.finance.repository.UserRepository;
 import com.finance.security.CurrentUser;
 import com.finance.security.UserPrincipal;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -27,17 +29,20 @@ public class InvestmentGoalController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private Validator validator;
+
     @GetMapping
-    public ResponseEntity<List<InvestmentGoal>> getAllGoals(@CurrentUser UserPrincipal currentUser) {
-        List<InvestmentGoal> goals = goalRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
+    public ResponseEntity<List<InvestmentGoalRepository.GoalListItem>> getAllGoals(@CurrentUser UserPrincipal currentUser) {
+        List<InvestmentGoalRepository.GoalListItem> goals = goalRepository.findListItems(currentUser.getId());
         return ResponseEntity.ok(goals);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<InvestmentGoal> getGoalById(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<InvestmentGoal> goal = goalRepository.findById(id);
+        Optional<InvestmentGoal> goal = goalRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (goal.isPresent() && goal.get().getUser().getId().equals(currentUser.getId())) {
+        if (goal.isPresent()) {
             return ResponseEntity.ok(goal.get());
         }
         
@@ -47,19 +52,9 @@ public class InvestmentGoalController {
     @PostMapping
     public ResponseEntity<InvestmentGoal> createGoal(@Valid @RequestBody GoalRequest goalRequest, 
                                                    @CurrentUser UserPrincipal currentUser) {
-        User user = userRepository.findById(currentUser.getId()).orElse(null);
-        if (user == null) {
-            return ResponseEntity.badRequest().build();
-        }
+        User user = userRepository.getReferenceById(currentUser.getId());
 
-        InvestmentGoal goal = new InvestmentGoal();
-        goal.setUser(user);
-        goal.setName(goalRequest.getName());
-        goal.setDescription(goalRequest.getDescription());
-        goal.setTargetAmount(goalRequest.getTargetAmount());
-        goal.setCurrentAmount(goalRequest.getCurrentAmount() != null ? goalRequest.getCurrentAmount() : BigDecimal.ZERO);
-        goal.setTargetDate(goalRequest.getTargetDate());
-        goal.setStatus(InvestmentGoal.GoalStatus.ACTIVE);
+        InvestmentGoal goal = newGoal(user, goalRequest);
 
         InvestmentGoal savedGoal = goalRepository.save(goal);
         return ResponseEntity.ok(savedGoal);
@@ -69,16 +64,11 @@ public class InvestmentGoalController {
     public ResponseEntity<InvestmentGoal> updateGoal(@PathVariable Long id, 
                                                    @Valid @RequestBody GoalRequest goalRequest,
                                                    @CurrentUser UserPrincipal currentUser) {
-        Optional<InvestmentGoal> existingGoal = goalRepository.findById(id);
+        Optional<InvestmentGoal> existingGoal = goalRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (existingGoal.isPresent() && existingGoal.get().getUser().getId().equals(currentUser.getId())) {
+        if (existingGoal.isPresent()) {
             InvestmentGoal goal = existingGoal.get();
-            goal.setName(goalRequest.getName());
-            goal.setDescription(goalRequest.getDescription());
-            goal.setTargetAmount(goalRequest.getTargetAmount());
-            goal.setCurrentAmount(goalRequest.getCurrentAmount() != null ? goalRequest.getCurrentAmount() : BigDecimal.ZERO);
-            goal.setTargetDate(goalRequest.getTargetDate());
-            goal.setStatus(goalRequest.getStatus() != null ? goalRequest.getStatus() : InvestmentGoal.GoalStatus.ACTIVE);
+            applyRequest(goal, goalRequest);
 
             InvestmentGoal updatedGoal = goalRepository.save(goal);
             return ResponseEntity.ok(updatedGoal);
@@ -88,20 +78,39 @@ public class InvestmentGoalController {
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteGoal(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<InvestmentGoal> goal = goalRepository.findById(id);
-        
-        if (goal.isPresent() && goal.get().getUser().getId().equals(currentUser.getId())) {
-            goalRepository.delete(goal.get());
+        if (goalRepository.deleteByIdAndUserId(id, currentUser.getId()) > 0) {
             return ResponseEntity.ok().build();
         }
         
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Applies up to {@link BatchOperation#MAX_OPERATIONS} creates, updates and
+     * deletes in one transaction and reports the outcome of each.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> batchGoals(@RequestBody List<GoalBatchOperation> operations,
+                                        @CurrentUser UserPrincipal currentUser) {
+        if (operations.size() > BatchOperation.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest().body("At most " + BatchOperation.MAX_OPERATIONS + " operations per batch");
+        }
+
+        User user = userRepository.getReferenceById(currentUser.getId());
+        BatchOperation.Summary summary = new BatchExecutor<GoalRequest, InvestmentGoal>(goalRepository, validator,
+                InvestmentGoal::getId, goalRepository::findByIdInAndUserId,
+                request -> newGoal(user, request),
+                this::applyRequest)
+                .execute(currentUser.getId(), operations);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/active")
-    public ResponseEntity<List<InvestmentGoal>> getActiveGoals(@CurrentUser UserPrincipal currentUser) {
-        List<InvestmentGoal> activeGoals = goalRepository.findByUserIdAndStatus(currentUser.getId(), InvestmentGoal.GoalStatus.ACTIVE);
+    public ResponseEntity<List<InvestmentGoalRepository.GoalListItem>> getActiveGoals(@CurrentUser UserPrincipal currentUser) {
+        List<InvestmentGoalRepository.GoalListItem> activeGoals = goalRepository.findListItemsByStatus(currentUser.getId(), InvestmentGoal.GoalStatus.ACTIVE);
         return ResponseEntity.ok(activeGoals);
     }
 
@@ -109,9 +118,9 @@ public class InvestmentGoalController {
     public ResponseEntity<InvestmentGoal> updateProgress(@PathVariable Long id, 
                                                        @RequestBody ProgressRequest progressRequest,
                                                        @CurrentUser UserPrincipal currentUser) {
-        Optional<InvestmentGoal> goal = goalRepository.findById(id);
+        Optional<InvestmentGoal> goal = goalRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (goal.isPresent() && goal.get().getUser().getId().equals(currentUser.getId())) {
+        if (goal.isPresent()) {
             InvestmentGoal investmentGoal = goal.get();
             investmentGoal.setCurrentAmount(progressRequest.getCurrentAmount());
             
@@ -127,6 +136,27 @@ public class InvestmentGoalController {
         return ResponseEntity.notFound().build();
     }
 
+    private InvestmentGoal newGoal(User user, GoalRequest request) {
+        InvestmentGoal goal = new InvestmentGoal();
+        goal.setUser(user);
+        goal.setName(request.getName());
+        goal.setDescription(request.getDescription());
+        goal.setTargetAmount(request.getTargetAmount());
+        goal.setCurrentAmount(request.getCurrentAmount() != null ? request.getCurrentAmount() : BigDecimal.ZERO);
+        goal.setTargetDate(request.getTargetDate());
+        goal.setStatus(InvestmentGoal.GoalStatus.ACTIVE);
+        return goal;
+    }
+
+    private void applyRequest(InvestmentGoal goal, GoalRequest request) {
+        goal.setName(request.getName());
+        goal.setDescription(request.getDescription());
+        goal.setTargetAmount(request.getTargetAmount());
+        goal.setCurrentAmount(request.getCurrentAmount() != null ? request.getCurrentAmount() : BigDecimal.ZERO);
+        goal.setTargetDate(request.getTargetDate());
+        goal.setStatus(request.getStatus() != null ? request.getStatus() : InvestmentGoal.GoalStatus.ACTIVE);
+    }
+
     // Request classes
     public static class GoalRequest {
         private String name;
@@ -197,4 +227,7 @@ public class InvestmentGoalController {
             this.currentAmount = currentAmount;
         }
     }
-} 
\ No newline at end of file
+
+    public static class GoalBatchOperation extends BatchOperation<GoalRequest> {
+    }
+}
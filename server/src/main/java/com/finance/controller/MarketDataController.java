@@ -0,0 +1,148 @@
+package com.finance.controller;
+
+import com.finance.model.Position;
+import com.finance.security.CurrentUser;
+import com.finance.security.UserPrincipal;
+import com.finance.service.MarketDataService;
+import com.finance.service.PriceHistoryBackfill;
+import com.finance.service.PositionService;
+import com.finance.service.PriceHistoryStore;
+import com.finance.service.PriceStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/market")
+@CrossOrigin(origins = "*")
+public class MarketDataController {
+
+    private static final long DEFAULT_HISTORY_MILLIS = Duration.ofDays(30).toMillis();
+
+    @Autowired
+    private MarketDataService marketDataService;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Autowired
+    private PriceHistoryBackfill priceHistoryBackfill;
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private PositionService positionService;
+
+    @Value("${app.price-stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Long>> getQuoteCacheStats() {
+        return ResponseEntity.ok(marketDataService.getQuoteCacheStats());
+    }
+
+    @GetMapping("/providers")
+    public ResponseEntity<List<String>> getProviders() {
+        return ResponseEntity.ok(marketDataService.getProviderNames());
+    }
+
+    @GetMapping("/providers/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getProviderStats() {
+        return ResponseEntity.ok(marketDataService.getProviderStats());
+    }
+
+    /**
+     * Server-sent "price" events for the given symbols, or for the symbols
+     * currently held when none are given. Comment lines keep idle
+     * connections open; clients reconnect when the async timeout ends the
+     * stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<PriceStreamService.PriceUpdate>>> streamPrices(
+            @RequestParam(required = false) List<String> symbols,
+            @CurrentUser UserPrincipal currentUser) {
+        Flux<PriceStreamService.PriceUpdate> updates;
+        try {
+            if (symbols != null && !symbols.isEmpty()) {
+                updates = priceStreamService.subscribe(symbols);
+            } else {
+                // Held positions know their asset type, so only matching providers are asked
+                Map<String, String> held = new LinkedHashMap<>();
+                for (Position position : positionService.getPositions(currentUser.getId())) {
+                    if (position.getQuantity().signum() > 0) {
+                        held.put(position.getSymbol(), position.getAssetType());
+                    }
+                }
+                updates = priceStreamService.subscribe(held);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Flux<ServerSentEvent<PriceStreamService.PriceUpdate>> events = updates
+                .map(update -> ServerSentEvent.builder(update).event("price").build());
+        Flux<ServerSentEvent<PriceStreamService.PriceUpdate>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.<PriceStreamService.PriceUpdate>builder().comment("heartbeat").build());
+        return ResponseEntity.ok(Flux.merge(events, heartbeats.onBackpressureDrop()));
+    }
+
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Integer>> getStreamStats() {
+        return ResponseEntity.ok(priceStreamService.getStats());
+    }
+
+    /**
+     * Stored prices between from (inclusive) and to (exclusive), as epoch
+     * milliseconds. Defaults to the last 30 days.
+     */
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<?> getPriceHistory(@PathVariable String symbol,
+                                             @RequestParam(required = false) Long from,
+                                             @RequestParam(required = false) Long to,
+                                             @RequestParam(defaultValue = "10000") int limit) {
+        long end = to != null ? to : System.currentTimeMillis() + 1;
+        long start = from != null ? from : end - DEFAULT_HISTORY_MILLIS;
+        try {
+            return ResponseEntity.ok(priceHistoryStore.range(symbol, start, end, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Open/high/low/close per interval, e.g. interval=1h or interval=P1D.
+     */
+    @GetMapping("/history/{symbol}/downsample")
+    public ResponseEntity<?> downsamplePriceHistory(@PathVariable String symbol,
+                                                    @RequestParam(required = false) Long from,
+                                                    @RequestParam(required = false) Long to,
+                                                    @RequestParam(defaultValue = "1d") String interval) {
+        long end = to != null ? to : System.currentTimeMillis() + 1;
+        long start = from != null ? from : end - DEFAULT_HISTORY_MILLIS;
+        try {
+            long intervalMillis = DurationStyle.detectAndParse(interval).toMillis();
+            return ResponseEntity.ok(priceHistoryStore.downsample(symbol, start, end, intervalMillis));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Backfills the daily history of the symbols the current user has traded.
+     */
+    @PostMapping("/history/backfill")
+    public ResponseEntity<PriceHistoryBackfill.Result> backfillPriceHistory(@CurrentUser UserPrincipal currentUser) {
+        return ResponseEntity.ok(priceHistoryBackfill.backfillUser(currentUser.getId()));
+    }
+}
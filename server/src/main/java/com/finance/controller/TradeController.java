@@ -1,29 +1,64 @@
 package com.finance.controller;
 
+import com.finance.model.Position;
 import com.finance.model.Trade;
 import com.finance.model.User;
 import com.finance.repository.TradeRepository;
 import com.finance.repository.UserRepository;
 import com.finance.security.CurrentUser;
 import com.finance.security.UserPrincipal;
+import com.finance.service.BulkImportService;
+import com.finance.service.EntityStreamer;
+import com.finance.service.LotAccountingEngine;
 import com.finance.service.MarketDataService;
+import com.finance.service.PortfolioSnapshotService;
+import com.finance.service.PortfolioValuation;
+import com.finance.service.PositionService;
+import com.finance.service.TabularExporter;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/trades")
 @CrossOrigin(origins = "*")
 public class TradeController {
 
+    private static final List<TabularExporter.Column<Trade>> EXPORT_COLUMNS = List.of(
+            new TabularExporter.Column<>("Date", Trade::getTradeDate),
+            new TabularExporter.Column<>("Symbol", Trade::getSymbol),
+            new TabularExporter.Column<>("Asset Type", Trade::getAssetType),
+            new TabularExporter.Column<>("Type", Trade::getTradeType),
+            new TabularExporter.Column<>("Quantity", Trade::getQuantity),
+            new TabularExporter.Column<>("Price Per Unit", Trade::getPricePerUnit),
+            new TabularExporter.Column<>("Total Amount", Trade::getTotalAmount),
+            new TabularExporter.Column<>("Fees", Trade::getFees),
+            new TabularExporter.Column<>("Notes", Trade::getNotes));
+
     @Autowired
     private TradeRepository tradeRepository;
 
@@ -33,66 +68,136 @@ public class TradeController {
     @Autowired
     private MarketDataService marketDataService;
 
+    @Autowired
+    private PositionService positionService;
+
+    @Autowired
+    private PortfolioSnapshotService portfolioSnapshotService;
+
+    @Autowired
+    private LotAccountingEngine lotAccountingEngine;
+
+    @Autowired
+    private EntityStreamer entityStreamer;
+
+    @Autowired
+    private TabularExporter tabularExporter;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private Scheduler blockingScheduler;
+
     @GetMapping
-    public ResponseEntity<List<Trade>> getAllTrades(@CurrentUser UserPrincipal currentUser) {
-        List<Trade> trades = tradeRepository.findByUserIdOrderByTradeDateDesc(currentUser.getId());
-        
-        // Update current prices and calculate P&L
+    public Mono<ResponseEntity<List<TradeRepository.TradeListItem>>> getAllTrades(@CurrentUser UserPrincipal currentUser) {
+        return Mono.fromCallable(() -> tradeRepository.findListItems(currentUser.getId()))
+                .subscribeOn(blockingScheduler)
+                .flatMap(trades -> marketDataService.getCurrentPricesReactive(listItemAssetTypes(trades))
+                        .map(prices -> {
+                            // Update current prices and calculate P&L
+                            List<TradeRepository.TradeListItem> valued = new ArrayList<>(trades.size());
+                            for (TradeRepository.TradeListItem trade : trades) {
+                                valued.add(PortfolioValuation.applyCurrentPrice(trade, prices.get(trade.symbol())));
+                            }
+                            return ResponseEntity.ok(valued);
+                        }));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getTradePage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @CurrentUser UserPrincipal currentUser) {
+        int pageSize = PageCursor.clampLimit(limit);
+        List<Trade> trades;
+        try {
+            trades = cursor == null
+                    ? tradeRepository.findFirstPage(currentUser.getId(), Limit.of(pageSize + 1))
+                    : findPageAfter(currentUser.getId(), PageCursor.decode(cursor), pageSize + 1);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // One extra row tells us whether another page exists
+        boolean hasMore = trades.size() > pageSize;
+        if (hasMore) {
+            trades = trades.subList(0, pageSize);
+        }
+
+        Map<String, BigDecimal> prices = marketDataService.getCurrentPrices(assetTypesBySymbol(trades));
         for (Trade trade : trades) {
-            try {
-                BigDecimal currentPrice = marketDataService.getCurrentPrice(trade.getSymbol());
-                trade.setCurrentPrice(currentPrice);
-                
-                if (trade.getCurrentPrice() != null && trade.getPricePerUnit() != null) {
-                    BigDecimal profitLoss = trade.getCurrentPrice()
-                            .subtract(trade.getPricePerUnit())
-                            .multiply(trade.getQuantity());
-                    trade.setProfitLoss(profitLoss);
-                    
-                    BigDecimal profitLossPercentage = profitLoss
-                            .divide(trade.getPricePerUnit().multiply(trade.getQuantity()), 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"));
-                    trade.setProfitLossPercentage(profitLossPercentage);
-                }
-            } catch (Exception e) {
-                // Handle API errors gracefully
-                trade.setCurrentPrice(BigDecimal.ZERO);
-                trade.setProfitLoss(BigDecimal.ZERO);
-                trade.setProfitLossPercentage(BigDecimal.ZERO);
-            }
+            PortfolioValuation.applyCurrentPrice(trade, prices.get(trade.getSymbol()));
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", trades);
+        if (hasMore) {
+            Trade last = trades.get(trades.size() - 1);
+            page.put("nextCursor", new PageCursor(last.getTradeDate(), last.getId()).encode());
+        } else {
+            page.put("nextCursor", null);
+        }
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTrades(@CurrentUser UserPrincipal currentUser) {
+        Long userId = currentUser.getId();
+        // Symbols are priced the first time they appear; the quote cache keeps repeats cheap
+        Map<String, BigDecimal> prices = new HashMap<>();
+        StreamingResponseBody body = entityStreamer.ndjson(
+                () -> tradeRepository.streamByUserId(userId), Trade.class,
+                trade -> PortfolioValuation.applyCurrentPrice(trade, knownPrice(prices, trade)));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTrades(@RequestParam(defaultValue = "xlsx") String format,
+                                                                @CurrentUser UserPrincipal currentUser) {
+        TabularExporter.Format exportFormat;
+        try {
+            exportFormat = TabularExporter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = currentUser.getId();
+        StreamingResponseBody body = tabularExporter.export(exportFormat, "Trades",
+                () -> tradeRepository.streamByUserId(userId), EXPORT_COLUMNS);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"trades." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importTrades(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(required = false) String format,
+                                           @RequestParam(defaultValue = "STOCK") String defaultAssetType,
+                                           @CurrentUser UserPrincipal currentUser) throws IOException {
+        try {
+            BulkImportService.Format importFormat = BulkImportService.Format.resolve(format, file.getOriginalFilename());
+            return ResponseEntity.ok(bulkImportService.importTrades(currentUser.getId(), file, importFormat, defaultAssetType));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        
-        return ResponseEntity.ok(trades);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Trade> getTradeById(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<Trade> trade = tradeRepository.findById(id);
+        Optional<Trade> trade = tradeRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (trade.isPresent() && trade.get().getUser().getId().equals(currentUser.getId())) {
+        if (trade.isPresent()) {
             Trade tradeData = trade.get();
-            
-            // Update current price and P&L
-            try {
-                BigDecimal currentPrice = marketDataService.getCurrentPrice(tradeData.getSymbol());
-                tradeData.setCurrentPrice(currentPrice);
-                
-                if (tradeData.getCurrentPrice() != null && tradeData.getPricePerUnit() != null) {
-                    BigDecimal profitLoss = tradeData.getCurrentPrice()
-                            .subtract(tradeData.getPricePerUnit())
-                            .multiply(tradeData.getQuantity());
-                    tradeData.setProfitLoss(profitLoss);
-                    
-                    BigDecimal profitLossPercentage = profitLoss
-                            .divide(tradeData.getPricePerUnit().multiply(tradeData.getQuantity()), 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"));
-                    tradeData.setProfitLossPercentage(profitLossPercentage);
-                }
-            } catch (Exception e) {
-                tradeData.setCurrentPrice(BigDecimal.ZERO);
-                tradeData.setProfitLoss(BigDecimal.ZERO);
-                tradeData.setProfitLossPercentage(BigDecimal.ZERO);
-            }
+            Map<String, BigDecimal> prices = marketDataService.getCurrentPrices(assetTypesBySymbol(List.of(tradeData)));
+            PortfolioValuation.applyCurrentPrice(tradeData, prices.get(tradeData.getSymbol()));
             
             return ResponseEntity.ok(tradeData);
         }
@@ -101,48 +206,38 @@ public class TradeController {
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Trade> createTrade(@Valid @RequestBody TradeRequest tradeRequest, 
                                            @CurrentUser UserPrincipal currentUser) {
-        User user = userRepository.findById(currentUser.getId()).orElse(null);
-        if (user == null) {
-            return ResponseEntity.badRequest().build();
-        }
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         Trade trade = new Trade();
         trade.setUser(user);
-        trade.setSymbol(tradeRequest.getSymbol().toUpperCase());
-        trade.setAssetType(tradeRequest.getAssetType());
-        trade.setTradeType(tradeRequest.getTradeType());
-        trade.setQuantity(tradeRequest.getQuantity());
-        trade.setPricePerUnit(tradeRequest.getPricePerUnit());
-        trade.setTotalAmount(tradeRequest.getQuantity().multiply(tradeRequest.getPricePerUnit()));
-        trade.setFees(tradeRequest.getFees() != null ? tradeRequest.getFees() : BigDecimal.ZERO);
-        trade.setNotes(tradeRequest.getNotes());
-        trade.setTradeDate(tradeRequest.getTradeDate() != null ? tradeRequest.getTradeDate() : LocalDateTime.now());
+        applyRequest(trade, tradeRequest);
 
         Trade savedTrade = tradeRepository.save(trade);
+        positionService.tradeCreated(savedTrade);
+        portfolioSnapshotService.tradesChanged(currentUser.getId(), savedTrade.getTradeDate());
         return ResponseEntity.ok(savedTrade);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Trade> updateTrade(@PathVariable Long id, 
                                            @Valid @RequestBody TradeRequest tradeRequest,
                                            @CurrentUser UserPrincipal currentUser) {
-        Optional<Trade> existingTrade = tradeRepository.findById(id);
+        Optional<Trade> existingTrade = tradeRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (existingTrade.isPresent() && existingTrade.get().getUser().getId().equals(currentUser.getId())) {
+        if (existingTrade.isPresent()) {
             Trade trade = existingTrade.get();
-            trade.setSymbol(tradeRequest.getSymbol().toUpperCase());
-            trade.setAssetType(tradeRequest.getAssetType());
-            trade.setTradeType(tradeRequest.getTradeType());
-            trade.setQuantity(tradeRequest.getQuantity());
-            trade.setPricePerUnit(tradeRequest.getPricePerUnit());
-            trade.setTotalAmount(tradeRequest.getQuantity().multiply(tradeRequest.getPricePerUnit()));
-            trade.setFees(tradeRequest.getFees() != null ? tradeRequest.getFees() : BigDecimal.ZERO);
-            trade.setNotes(tradeRequest.getNotes());
-            trade.setTradeDate(tradeRequest.getTradeDate() != null ? tradeRequest.getTradeDate() : LocalDateTime.now());
-
-            Trade updatedTrade = tradeRepository.save(trade);
+            String previousSymbol = trade.getSymbol();
+            LocalDateTime previousDate = trade.getTradeDate();
+            applyRequest(trade, tradeRequest);
+
+            Trade updatedTrade = tradeRepository.saveAndFlush(trade);
+            positionService.tradeUpdated(currentUser.getId(), previousSymbol, updatedTrade);
+            portfolioSnapshotService.tradesChanged(currentUser.getId(),
+                    previousDate.isBefore(updatedTrade.getTradeDate()) ? previousDate : updatedTrade.getTradeDate());
             return ResponseEntity.ok(updatedTrade);
         }
         
@@ -150,56 +245,175 @@ public class TradeController {
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteTrade(@PathVariable Long id, @CurrentUser UserPrincipal currentUser) {
-        Optional<Trade> trade = tradeRepository.findById(id);
+        Optional<Trade> trade = tradeRepository.findByIdAndUserId(id, currentUser.getId());
         
-        if (trade.isPresent() && trade.get().getUser().getId().equals(currentUser.getId())) {
+        if (trade.isPresent()) {
             tradeRepository.delete(trade.get());
+            tradeRepository.flush();
+            positionService.tradeDeleted(currentUser.getId(), trade.get().getSymbol());
+            portfolioSnapshotService.tradesChanged(currentUser.getId(), trade.get().getTradeDate());
             return ResponseEntity.ok().build();
         }
         
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Applies up to {@link BatchOperation#MAX_OPERATIONS} creates, updates and
+     * deletes in one transaction and reports the outcome of each.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> batchTrades(@RequestBody List<TradeBatchOperation> operations,
+                                         @CurrentUser UserPrincipal currentUser) {
+        if (operations.size() > BatchOperation.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest().body("At most " + BatchOperation.MAX_OPERATIONS + " operations per batch");
+        }
+
+        Long userId = currentUser.getId();
+        User user = userRepository.getReferenceById(userId);
+        Set<String> changedSymbols = new HashSet<>();
+        LocalDateTime[] earliestChange = {null};
+        Consumer<Trade> changed = trade -> {
+            changedSymbols.add(trade.getSymbol());
+            if (earliestChange[0] == null || trade.getTradeDate().isBefore(earliestChange[0])) {
+                earliestChange[0] = trade.getTradeDate();
+            }
+        };
+        BatchOperation.Summary summary = new BatchExecutor<TradeRequest, Trade>(tradeRepository, validator,
+                Trade::getId, tradeRepository::findByIdInAndUserId,
+                request -> {
+                    Trade trade = new Trade();
+                    trade.setUser(user);
+                    applyRequest(trade, request);
+                    return trade;
+                },
+                this::applyRequest)
+                .beforeChange(changed)
+                .afterChange(changed)
+                .execute(userId, operations);
+
+        if (!changedSymbols.isEmpty()) {
+            positionService.tradesChanged(userId, changedSymbols);
+            portfolioSnapshotService.tradesChanged(userId, earliestChange[0]);
+        }
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/portfolio")
-    public ResponseEntity<Map<String, Object>> getPortfolio(@CurrentUser UserPrincipal currentUser) {
-        List<Trade> trades = tradeRepository.findByUserIdOrderByTradeDateDesc(currentUser.getId());
-        
-        BigDecimal totalInvested = tradeRepository.getTotalInvestedAmount(currentUser.getId());
-        BigDecimal totalSold = tradeRepository.getTotalSoldAmount(currentUser.getId());
-        
-        if (totalInvested == null) totalInvested = BigDecimal.ZERO;
-        if (totalSold == null) totalSold = BigDecimal.ZERO;
-        
-        BigDecimal currentValue = BigDecimal.ZERO;
-        BigDecimal totalProfitLoss = BigDecimal.ZERO;
-        
-        for (Trade trade : trades) {
-            try {
-                BigDecimal currentPrice = marketDataService.getCurrentPrice(trade.getSymbol());
-                if (currentPrice != null) {
-                    BigDecimal tradeValue = currentPrice.multiply(trade.getQuantity());
-                    currentValue = currentValue.add(tradeValue);
-                    
-                    BigDecimal tradeProfitLoss = currentPrice
-                            .subtract(trade.getPricePerUnit())
-                            .multiply(trade.getQuantity());
-                    totalProfitLoss = totalProfitLoss.add(tradeProfitLoss);
-                }
-            } catch (Exception e) {
-                // Handle API errors
+    public Mono<ResponseEntity<Map<String, Object>>> getPortfolio(@CurrentUser UserPrincipal currentUser) {
+        return Mono.fromCallable(() -> positionService.getPositions(currentUser.getId()))
+                .subscribeOn(blockingScheduler)
+                .flatMap(positions -> marketDataService.getCurrentPricesReactive(heldAssetTypes(positions))
+                        .map(prices -> ResponseEntity.ok(PortfolioValuation.summarize(positions, prices))));
+    }
+
+    /**
+     * Daily portfolio value at closing prices between from and to (ISO dates,
+     * inclusive). Defaults to the last five years.
+     */
+    @GetMapping("/portfolio/history")
+    public ResponseEntity<List<PortfolioSnapshotService.Point>> getPortfolioHistory(@RequestParam(required = false) LocalDate from,
+                                                                                   @RequestParam(required = false) LocalDate to,
+                                                                                   @CurrentUser UserPrincipal currentUser) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusYears(5);
+        return ResponseEntity.ok(portfolioSnapshotService.getHistory(currentUser.getId(), start, end));
+    }
+
+    @PostMapping("/portfolio/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildPortfolio(@CurrentUser UserPrincipal currentUser) {
+        List<String> mismatches = positionService.rebuild(currentUser.getId());
+        int snapshots = portfolioSnapshotService.rebuild(currentUser.getId());
+
+        Map<String, Object> result = Map.of(
+            "consistent", mismatches.isEmpty(),
+            "mismatches", mismatches,
+            "snapshots", snapshots
+        );
+
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/pnl")
+    public ResponseEntity<Map<String, Object>> getProfitLoss(@RequestParam(defaultValue = "FIFO") LotAccountingEngine.CostMethod method,
+                                                             @CurrentUser UserPrincipal currentUser) {
+        List<Trade> trades = tradeRepository.findByUserIdOrderByTradeDateAscIdAsc(currentUser.getId());
+        Map<String, BigDecimal> prices = marketDataService.getCurrentPrices(assetTypesBySymbol(trades));
+        Map<String, LotAccountingEngine.SymbolProfitLoss> bySymbol = lotAccountingEngine.calculate(trades, method, prices);
+
+        BigDecimal totalRealized = BigDecimal.ZERO;
+        BigDecimal totalUnrealized = BigDecimal.ZERO;
+        for (LotAccountingEngine.SymbolProfitLoss symbolProfitLoss : bySymbol.values()) {
+            totalRealized = totalRealized.add(symbolProfitLoss.realizedProfitLoss());
+            if (symbolProfitLoss.unrealizedProfitLoss() != null) {
+                totalUnrealized = totalUnrealized.add(symbolProfitLoss.unrealizedProfitLoss());
             }
         }
-        
-        Map<String, Object> portfolio = Map.of(
-            "totalInvested", totalInvested,
-            "totalSold", totalSold,
-            "currentValue", currentValue,
-            "totalProfitLoss", totalProfitLoss,
-            "totalTrades", trades.size()
+
+        Map<String, Object> result = Map.of(
+            "method", method,
+            "symbols", bySymbol.values(),
+            "realizedProfitLoss", totalRealized,
+            "unrealizedProfitLoss", totalUnrealized,
+            "totalProfitLoss", totalRealized.add(totalUnrealized)
         );
-        
-        return ResponseEntity.ok(portfolio);
+
+        return ResponseEntity.ok(result);
+    }
+
+    private Map<String, String> heldAssetTypes(List<Position> positions) {
+        Map<String, String> assetTypes = new HashMap<>();
+        for (Position position : positions) {
+            if (position.getQuantity().signum() > 0) {
+                assetTypes.put(position.getSymbol(), position.getAssetType());
+            }
+        }
+        return assetTypes;
+    }
+
+    private List<Trade> findPageAfter(Long userId, PageCursor cursor, int limit) {
+        return tradeRepository.findPageAfter(userId, cursor.date(), cursor.id(), Limit.of(limit));
+    }
+
+    private Map<String, String> assetTypesBySymbol(List<Trade> trades) {
+        Map<String, String> assetTypes = new HashMap<>();
+        for (Trade trade : trades) {
+            assetTypes.putIfAbsent(trade.getSymbol(), trade.getAssetType());
+        }
+        return assetTypes;
+    }
+
+    private Map<String, String> listItemAssetTypes(List<TradeRepository.TradeListItem> trades) {
+        Map<String, String> assetTypes = new HashMap<>();
+        for (TradeRepository.TradeListItem trade : trades) {
+            assetTypes.putIfAbsent(trade.symbol(), trade.assetType());
+        }
+        return assetTypes;
+    }
+
+    private BigDecimal knownPrice(Map<String, BigDecimal> prices, Trade trade) {
+        // Remember misses too, so an unpriced symbol is looked up once per stream
+        if (!prices.containsKey(trade.getSymbol())) {
+            prices.put(trade.getSymbol(), marketDataService.getCurrentPrice(trade.getSymbol(), trade.getAssetType()));
+        }
+        return prices.get(trade.getSymbol());
+    }
+
+    private void applyRequest(Trade trade, TradeRequest request) {
+        trade.setSymbol(request.getSymbol() != null ? request.getSymbol().toUpperCase() : null);
+        trade.setAssetType(request.getAssetType());
+        trade.setTradeType(request.getTradeType());
+        trade.setQuantity(request.getQuantity());
+        trade.setPricePerUnit(request.getPricePerUnit());
+        trade.setTotalAmount(request.getQuantity() != null && request.getPricePerUnit() != null
+                ? request.getQuantity().multiply(request.getPricePerUnit())
+                : null);
+        trade.setFees(request.getFees() != null ? request.getFees() : BigDecimal.ZERO);
+        trade.setNotes(request.getNotes());
+        trade.setTradeDate(request.getTradeDate() != null ? request.getTradeDate() : LocalDateTime.now());
     }
 
     // Request class
@@ -278,4 +492,7 @@ public class TradeController {
             this.tradeDate = tradeDate;
         }
     }
-} 
\ No newline at end of file
+
+    public static class TradeBatchOperation extends BatchOperation<TradeRequest> {
+    }
+}
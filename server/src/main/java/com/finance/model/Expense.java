@@ -1,37 +1,52 @@
 package com.finance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        // Listing, keyset pages, streaming and date-range totals (covers amount)
+        @Index(name = "idx_expenses_user_date", columnList = "user_id, expense_date, id, amount"),
+        // Category listing and per-category totals (covers amount)
+        @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category, expense_date, amount")
+})
 public class Expense {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "description")
     private String description;
 
     @NotNull
     @DecimalMin("0.01")
+    @DecimalMax("99999999999999999.99")
     @Column(name = "amount", precision = 19, scale = 2)
     private BigDecimal amount;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "category")
     private String category; // FOOD, TRANSPORT, ENTERTAINMENT, etc.
 
+    @Size(max = 255)
     @Column(name = "notes")
     private String notes;
 
@@ -1,39 +1,50 @@
 package com.finance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "investment_goals")
+@Table(name = "investment_goals", indexes = {
+        @Index(name = "idx_goals_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_goals_user_status", columnList = "user_id, status")
+})
 public class InvestmentGoal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "name")
     private String name;
 
+    @Size(max = 255)
     @Column(name = "description")
     private String description;
 
     @NotNull
     @DecimalMin("0.01")
+    @DecimalMax("99999999999999999.99")
     @Column(name = "target_amount", precision = 19, scale = 2)
     private BigDecimal targetAmount;
 
     @NotNull
     @DecimalMin("0.00")
+    @DecimalMax("99999999999999999.99")
     @Column(name = "current_amount", precision = 19, scale = 2)
     private BigDecimal currentAmount = BigDecimal.ZERO;
 
@@ -147,6 +158,10 @@ public class InvestmentGoal {
 
     // Helper method to calculate progress percentage
     public BigDecimal getProgressPercentage() {
+        return progressPercentage(currentAmount, targetAmount);
+    }
+
+    public static BigDecimal progressPercentage(BigDecimal currentAmount, BigDecimal targetAmount) {
         if (targetAmount.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
@@ -0,0 +1,86 @@
+package com.finance.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "portfolio_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_portfolio_snapshots_user_date", columnNames = {"user_id", "snapshot_date"})
+})
+public class PortfolioSnapshot {
+    @Id
+    // Days are rewritten in runs, so inserts are batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "portfolio_snapshots_seq")
+    @SequenceGenerator(name = "portfolio_snapshots_seq", sequenceName = "portfolio_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    // Holdings at the end of the day valued at that day's closing prices
+    @Column(name = "market_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal marketValue;
+
+    // Cumulative buys minus sells up to the end of the day
+    @Column(name = "net_invested", nullable = false, precision = 19, scale = 2)
+    private BigDecimal netInvested;
+
+    public PortfolioSnapshot() {
+    }
+
+    public PortfolioSnapshot(User user, LocalDate snapshotDate, BigDecimal marketValue, BigDecimal netInvested) {
+        this.user = user;
+        this.snapshotDate = snapshotDate;
+        this.marketValue = marketValue;
+        this.netInvested = netInvested;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public BigDecimal getMarketValue() {
+        return marketValue;
+    }
+
+    public void setMarketValue(BigDecimal marketValue) {
+        this.marketValue = marketValue;
+    }
+
+    public BigDecimal getNetInvested() {
+        return netInvested;
+    }
+
+    public void setNetInvested(BigDecimal netInvested) {
+        this.netInvested = netInvested;
+    }
+}
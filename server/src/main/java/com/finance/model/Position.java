@@ -0,0 +1,189 @@
+package com.finance.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "positions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_positions_user_symbol", columnNames = {"user_id", "symbol"})
+})
+public class Position {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "symbol", nullable = false)
+    private String symbol;
+
+    @Column(name = "asset_type")
+    private String assetType;
+
+    // Net quantity held (BUY minus SELL)
+    @Column(name = "quantity", precision = 19, scale = 8)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    // Average-cost basis of the quantity still held
+    @Column(name = "cost_basis", precision = 27, scale = 8)
+    private BigDecimal costBasis = BigDecimal.ZERO;
+
+    @Column(name = "realized_profit_loss", precision = 27, scale = 8)
+    private BigDecimal realizedProfitLoss = BigDecimal.ZERO;
+
+    @Column(name = "total_bought", precision = 19, scale = 2)
+    private BigDecimal totalBought = BigDecimal.ZERO;
+
+    @Column(name = "total_sold", precision = 19, scale = 2)
+    private BigDecimal totalSold = BigDecimal.ZERO;
+
+    @Column(name = "trade_count")
+    private long tradeCount;
+
+    @Column(name = "last_trade_date")
+    private LocalDateTime lastTradeDate;
+
+    @Column(name = "last_trade_id")
+    private Long lastTradeId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    public Position() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Position(User user, String symbol) {
+        this();
+        this.user = user;
+        this.symbol = symbol;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getAssetType() {
+        return assetType;
+    }
+
+    public void setAssetType(String assetType) {
+        this.assetType = assetType;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getRealizedProfitLoss() {
+        return realizedProfitLoss;
+    }
+
+    public void setRealizedProfitLoss(BigDecimal realizedProfitLoss) {
+        this.realizedProfitLoss = realizedProfitLoss;
+    }
+
+    public BigDecimal getTotalBought() {
+        return totalBought;
+    }
+
+    public void setTotalBought(BigDecimal totalBought) {
+        this.totalBought = totalBought;
+    }
+
+    public BigDecimal getTotalSold() {
+        return totalSold;
+    }
+
+    public void setTotalSold(BigDecimal totalSold) {
+        this.totalSold = totalSold;
+    }
+
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    public void setTradeCount(long tradeCount) {
+        this.tradeCount = tradeCount;
+    }
+
+    public LocalDateTime getLastTradeDate() {
+        return lastTradeDate;
+    }
+
+    public void setLastTradeDate(LocalDateTime lastTradeDate) {
+        this.lastTradeDate = lastTradeDate;
+    }
+
+    public Long getLastTradeId() {
+        return lastTradeId;
+    }
+
+    public void setLastTradeId(Long lastTradeId) {
+        this.lastTradeId = lastTradeId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
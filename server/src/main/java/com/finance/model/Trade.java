@@ -1,29 +1,43 @@
 package com.finance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trades")
+@Table(name = "trades", indexes = {
+        // Listing, keyset pages, streaming and date-range queries
+        @Index(name = "idx_trades_user_date", columnList = "user_id, trade_date, id"),
+        // Per-symbol position replay and symbol listing
+        @Index(name = "idx_trades_user_symbol_date", columnList = "user_id, symbol, trade_date, id"),
+        @Index(name = "idx_trades_user_asset_type_date", columnList = "user_id, asset_type, trade_date")
+})
 public class Trade {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trades_seq")
+    @SequenceGenerator(name = "trades_seq", sequenceName = "trades_seq", allocationSize = 50)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "symbol")
     private String symbol;
 
     @NotBlank
+    @Size(max = 255)
     @Column(name = "asset_type")
     private String assetType; // STOCK, CRYPTO, FOREX, etc.
 
@@ -34,22 +48,27 @@ public class Trade {
 
     @NotNull
     @DecimalMin("0.01")
+    @DecimalMax("99999999999.99999999")
     @Column(name = "quantity", precision = 19, scale = 8)
     private BigDecimal quantity;
 
     @NotNull
     @DecimalMin("0.01")
+    @DecimalMax("99999999999999999.99")
     @Column(name = "price_per_unit", precision = 19, scale = 2)
     private BigDecimal pricePerUnit;
 
     @NotNull
     @DecimalMin("0.00")
+    @DecimalMax("99999999999999999.99")
     @Column(name = "total_amount", precision = 19, scale = 2)
     private BigDecimal totalAmount;
 
+    @DecimalMax("99999999999999999.99")
     @Column(name = "fees", precision = 19, scale = 2)
     private BigDecimal fees = BigDecimal.ZERO;
 
+    @Size(max = 255)
     @Column(name = "notes")
     private String notes;
 
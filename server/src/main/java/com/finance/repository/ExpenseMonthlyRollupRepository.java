@@ -0,0 +1,29 @@
+package com.finance.repository;
+
+import com.finance.model.ExpenseMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long> {
+    Optional<ExpenseMonthlyRollup> findByUserIdAndMonthStartAndCategory(Long userId, LocalDate monthStart, String category);
+    
+    List<ExpenseMonthlyRollup> findByUserId(Long userId);
+    
+    boolean existsByUserId(Long userId);
+    
+    @Query("SELECT r.category, SUM(r.totalAmount) as totalAmount FROM ExpenseMonthlyRollup r WHERE r.user.id = :userId GROUP BY r.category")
+    List<Object[]> getExpensesByCategory(Long userId);
+    
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseMonthlyRollup r WHERE r.user.id = :userId")
+    BigDecimal getTotalExpenses(Long userId);
+    
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseMonthlyRollup r WHERE r.user.id = :userId AND r.monthStart >= :fromMonth AND r.monthStart < :toMonth")
+    BigDecimal getTotalExpensesByMonthRange(Long userId, LocalDate fromMonth, LocalDate toMonth);
+}
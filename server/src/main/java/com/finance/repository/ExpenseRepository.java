@@ -1,19 +1,43 @@
 package com.finance.repository;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.finance.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByUserIdOrderByExpenseDateDesc(Long userId);
+    Optional<Expense> findByIdAndUserId(Long id, Long userId);
     
-    List<Expense> findByUserIdAndCategoryOrderByExpenseDateDesc(Long userId, String category);
+    List<Expense> findByIdInAndUserId(Collection<Long> ids, Long userId);
+    
+    @Query("SELECT new com.finance.repository.ExpenseRepository$ExpenseListItem(e.id, e.description, e.amount, e.category, e.expenseDate) FROM Expense e WHERE e.user.id = :userId ORDER BY e.expenseDate DESC")
+    List<ExpenseListItem> findListItems(Long userId);
+    
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId ORDER BY e.expenseDate DESC, e.id DESC")
+    List<Expense> findFirstPage(Long userId, Limit limit);
+    
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND (e.expenseDate < :expenseDate OR (e.expenseDate = :expenseDate AND e.id < :id)) ORDER BY e.expenseDate DESC, e.id DESC")
+    List<Expense> findPageAfter(Long userId, LocalDateTime expenseDate, Long id, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<Expense> streamByUserId(Long userId);
+    
+    @Query("SELECT new com.finance.repository.ExpenseRepository$ExpenseListItem(e.id, e.description, e.amount, e.category, e.expenseDate) FROM Expense e WHERE e.user.id = :userId AND e.category = :category ORDER BY e.expenseDate DESC")
+    List<ExpenseListItem> findListItemsByCategory(Long userId, String category);
     
     @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate ORDER BY e.expenseDate DESC")
     List<Expense> findByUserIdAndExpenseDateBetween(Long userId, LocalDateTime startDate, LocalDateTime endDate);
@@ -24,6 +48,19 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.user.id = :userId")
     BigDecimal getTotalExpenses(Long userId);
     
+    @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), e.category, SUM(e.amount), COUNT(e) FROM Expense e WHERE e.user.id = :userId GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category")
+    List<Object[]> getMonthlyTotalsByCategory(Long userId);
+    
+    boolean existsByUserId(Long userId);
+    
     @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate")
     BigDecimal getTotalExpensesByDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * The columns of an expense that list views show. Notes and audit
+     * timestamps are left to the single-expense endpoint.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record ExpenseListItem(Long id, String description, BigDecimal amount, String category, LocalDateTime expenseDate) {
+    }
 } 
\ No newline at end of file
@@ -1,14 +1,45 @@
 package com.finance.repository;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.finance.model.InvestmentGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InvestmentGoalRepository extends JpaRepository<InvestmentGoal, Long> {
-    List<InvestmentGoal> findByUserIdOrderByCreatedAtDesc(Long userId);
+    Optional<InvestmentGoal> findByIdAndUserId(Long id, Long userId);
     
-    List<InvestmentGoal> findByUserIdAndStatus(Long userId, InvestmentGoal.GoalStatus status);
+    List<InvestmentGoal> findByIdInAndUserId(Collection<Long> ids, Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM InvestmentGoal g WHERE g.id = :id AND g.user.id = :userId")
+    int deleteByIdAndUserId(Long id, Long userId);
+    
+    @Query("SELECT new com.finance.repository.InvestmentGoalRepository$GoalListItem(g.id, g.name, g.targetAmount, g.currentAmount, g.targetDate, g.status) FROM InvestmentGoal g WHERE g.user.id = :userId ORDER BY g.createdAt DESC")
+    List<GoalListItem> findListItems(Long userId);
+    
+    @Query("SELECT new com.finance.repository.InvestmentGoalRepository$GoalListItem(g.id, g.name, g.targetAmount, g.currentAmount, g.targetDate, g.status) FROM InvestmentGoal g WHERE g.user.id = :userId AND g.status = :status")
+    List<GoalListItem> findListItemsByStatus(Long userId, InvestmentGoal.GoalStatus status);
+
+    /**
+     * The columns of a goal that list views show, with its progress.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record GoalListItem(Long id, String name, BigDecimal targetAmount, BigDecimal currentAmount,
+                        LocalDateTime targetDate, InvestmentGoal.GoalStatus status, BigDecimal progressPercentage) {
+
+        public GoalListItem(Long id, String name, BigDecimal targetAmount, BigDecimal currentAmount,
+                            LocalDateTime targetDate, InvestmentGoal.GoalStatus status) {
+            this(id, name, targetAmount, currentAmount, targetDate, status,
+                    InvestmentGoal.progressPercentage(currentAmount, targetAmount));
+        }
+    }
 } 
\ No newline at end of file
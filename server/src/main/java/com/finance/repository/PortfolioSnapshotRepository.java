@@ -0,0 +1,30 @@
+package com.finance.repository;
+
+import com.finance.model.PortfolioSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
+    @Query("SELECT s.snapshotDate, s.marketValue, s.netInvested FROM PortfolioSnapshot s WHERE s.user.id = :userId AND s.snapshotDate BETWEEN :from AND :to ORDER BY s.snapshotDate")
+    List<Object[]> findSeries(Long userId, LocalDate from, LocalDate to);
+    
+    @Query("SELECT MAX(s.snapshotDate) FROM PortfolioSnapshot s WHERE s.user.id = :userId")
+    LocalDate findLastSnapshotDate(Long userId);
+    
+    @Query("SELECT DISTINCT s.user.id FROM PortfolioSnapshot s")
+    List<Long> findUserIds();
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM PortfolioSnapshot s WHERE s.user.id = :userId AND s.snapshotDate >= :from")
+    int deleteFrom(Long userId, LocalDate from);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM PortfolioSnapshot s WHERE s.user.id = :userId")
+    int deleteByUserId(Long userId);
+}
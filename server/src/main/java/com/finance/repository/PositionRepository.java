@@ -0,0 +1,22 @@
+package com.finance.repository;
+
+import com.finance.model.Position;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PositionRepository extends JpaRepository<Position, Long> {
+    List<Position> findByUserIdOrderBySymbolAsc(Long userId);
+
+    Optional<Position> findByUserIdAndSymbol(Long userId, String symbol);
+
+    boolean existsByUserId(Long userId);
+    
+    @Query("SELECT p.user.id, UPPER(p.symbol) FROM Position p WHERE UPPER(p.symbol) IN :symbols")
+    List<Object[]> findHolders(Collection<String> symbols);
+}
@@ -1,17 +1,46 @@
 package com.finance.repository;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.finance.model.Trade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TradeRepository extends JpaRepository<Trade, Long> {
-    List<Trade> findByUserIdOrderByTradeDateDesc(Long userId);
+    Optional<Trade> findByIdAndUserId(Long id, Long userId);
+    
+    List<Trade> findByIdInAndUserId(Collection<Long> ids, Long userId);
+    
+    @Query("SELECT new com.finance.repository.TradeRepository$TradeListItem(t.id, t.symbol, t.assetType, t.tradeType, t.quantity, t.pricePerUnit, t.totalAmount, t.fees, t.tradeDate) FROM Trade t WHERE t.user.id = :userId ORDER BY t.tradeDate DESC")
+    List<TradeListItem> findListItems(Long userId);
+    
+    List<Trade> findByUserIdOrderByTradeDateAscIdAsc(Long userId);
+    
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId ORDER BY t.tradeDate DESC, t.id DESC")
+    List<Trade> findFirstPage(Long userId, Limit limit);
+    
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId AND (t.tradeDate < :tradeDate OR (t.tradeDate = :tradeDate AND t.id < :id)) ORDER BY t.tradeDate DESC, t.id DESC")
+    List<Trade> findPageAfter(Long userId, LocalDateTime tradeDate, Long id, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId ORDER BY t.tradeDate DESC, t.id DESC")
+    Stream<Trade> streamByUserId(Long userId);
+    
+    List<Trade> findByUserIdAndSymbolOrderByTradeDateAscIdAsc(Long userId, String symbol);
+    
+    boolean existsByUserId(Long userId);
     
     List<Trade> findByUserIdAndSymbolOrderByTradeDateDesc(Long userId, String symbol);
     
@@ -26,6 +55,47 @@ public interface TradeRepository extends JpaRepository<Trade, Long> {
     @Query("SELECT SUM(t.totalAmount) FROM Trade t WHERE t.user.id = :userId AND t.tradeType = 'SELL'")
     BigDecimal getTotalSoldAmount(Long userId);
     
+    @Query("SELECT t FROM Trade t WHERE t.user.id = :userId AND t.tradeDate >= :from AND t.tradeDate < :to ORDER BY t.tradeDate ASC, t.id ASC")
+    List<Trade> findForReplay(Long userId, LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT MIN(t.tradeDate) FROM Trade t WHERE t.user.id = :userId")
+    LocalDateTime findFirstTradeDate(Long userId);
+    
+    @Query("SELECT t.symbol, SUM(CASE WHEN t.tradeType = 'BUY' THEN t.quantity ELSE -t.quantity END), SUM(CASE WHEN t.tradeType = 'BUY' THEN t.totalAmount ELSE -t.totalAmount END) FROM Trade t WHERE t.user.id = :userId AND t.tradeDate < :before GROUP BY t.symbol")
+    List<Object[]> getNetHoldingsBefore(Long userId, LocalDateTime before);
+    
+    @Query("SELECT t.symbol, t.pricePerUnit FROM Trade t WHERE t.user.id = :userId AND t.tradeDate = (SELECT MAX(t2.tradeDate) FROM Trade t2 WHERE t2.user.id = :userId AND t2.symbol = t.symbol AND t2.tradeDate < :before) ORDER BY t.id")
+    List<Object[]> getLastTradePricesBefore(Long userId, LocalDateTime before);
+    
+    @Query("SELECT DISTINCT t.symbol, t.assetType FROM Trade t")
+    List<Object[]> findDistinctSymbols();
+    
+    @Query("SELECT DISTINCT t.symbol, t.assetType FROM Trade t WHERE t.user.id = :userId")
+    List<Object[]> findDistinctSymbolsByUserId(Long userId);
+    
     @Query("SELECT t.symbol, SUM(t.quantity) as totalQuantity FROM Trade t WHERE t.user.id = :userId GROUP BY t.symbol")
     List<Object[]> getHoldingsBySymbol(Long userId);
+
+    /**
+     * The columns of a trade that list views show, plus its valuation at the
+     * current price once {@link #withValuation} has been applied.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record TradeListItem(Long id, String symbol, String assetType, Trade.TradeType tradeType,
+                         BigDecimal quantity, BigDecimal pricePerUnit, BigDecimal totalAmount, BigDecimal fees,
+                         LocalDateTime tradeDate, BigDecimal currentPrice, BigDecimal profitLoss,
+                         BigDecimal profitLossPercentage) {
+
+        public TradeListItem(Long id, String symbol, String assetType, Trade.TradeType tradeType,
+                             BigDecimal quantity, BigDecimal pricePerUnit, BigDecimal totalAmount, BigDecimal fees,
+                             LocalDateTime tradeDate) {
+            this(id, symbol, assetType, tradeType, quantity, pricePerUnit, totalAmount, fees, tradeDate,
+                    null, null, null);
+        }
+
+        public TradeListItem withValuation(BigDecimal currentPrice, BigDecimal profitLoss, BigDecimal profitLossPercentage) {
+            return new TradeListItem(id, symbol, assetType, tradeType, quantity, pricePerUnit, totalAmount, fees,
+                    tradeDate, currentPrice, profitLoss, profitLossPercentage);
+        }
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.finance.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,12 +19,15 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
 
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
-                                   UserDetailsService userDetailsService) {
+                                   CustomUserDetailsService userDetailsService,
+                                   UserPrincipalCache principalCache) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -34,10 +38,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = resolveToken(request); // "Bearer <token>"
 
-        if (token != null && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Claims claims = token != null ? tokenProvider.getValidatedClaims(token) : null;
 
+        UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+
+        if (userDetails != null) {
             UsernamePasswordAuthenticationToken auth =
                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -48,6 +53,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        Long userId = tokenProvider.getUserIdFromClaims(claims);
+        try {
+            if (userId != null) {
+                return principalCache.get(userId,
+                        id -> (UserPrincipal) userDetailsService.loadUserById(id));
+            }
+            // Tokens issued before the user id was carried in claims
+            return principalCache.get(claims.getSubject(),
+                    username -> (UserPrincipal) userDetailsService.loadUserByUsername(username));
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
     private String resolveToken(HttpServletRequest request) {
         String bearer = request.getHeader("Authorization");
         if (bearer != null && bearer.startsWith("Bearer ")) {
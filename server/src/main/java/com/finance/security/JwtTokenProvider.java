@@ -3,6 +3,7 @@ package com.finance.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -10,6 +11,8 @@ import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class JwtTokenProvider {
@@ -20,38 +23,90 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.validation-cache-size:1024}")
+    private int validationCacheSize;
+
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    // Recently verified tokens, so repeat requests skip the HS512 check
+    private Map<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > validationCacheSize;
+            }
+        };
     }
 
+    public static final String CLAIM_USER_ID = "uid";
+
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            // Lets requests find the cached principal by id rather than by name
+            builder.claim(CLAIM_USER_ID, principal.getId());
+        }
+
+        return builder
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
-    }
+    /**
+     * Verifies the token once and returns its claims, or null if the token is
+     * invalid or expired.
+     */
+    public Claims getValidatedClaims(String token) {
+        Claims cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(token);
+        }
+        if (cached != null) {
+            if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(token);
+            }
+            return null;
+        }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
+
+    /**
+     * Returns the user id carried by the token, or null for tokens issued
+     * without it. Only the id is taken from the token; the account itself is
+     * looked up through {@link UserPrincipalCache} so it can be invalidated.
+     */
+    public Long getUserIdFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public boolean validateToken(String token) {
+        return getValidatedClaims(token) != null;
+    }
 }
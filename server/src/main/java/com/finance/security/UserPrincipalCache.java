@@ -0,0 +1,85 @@
+package com.finance.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded, short-lived cache of principals loaded from the database, keyed by
+ * user id for current tokens and by username for tokens issued without one.
+ * Entries expire after a TTL, which bounds how long a changed or removed
+ * account keeps its old authorities.
+ *
+ * No endpoint changes or removes an existing account or its roles, so today
+ * the TTL is the only revocation: a token keeps the authorities its account
+ * had when it was last loaded for up to that long. Code that changes an
+ * account must call {@link #invalidate(Long)} for the change to apply to
+ * tokens already issued.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final long ttlMillis;
+    private final Map<Object, Entry> entries;
+
+    public UserPrincipalCache(@Value("${jwt.principal-cache.max-size:1024}") int maxSize,
+                              @Value("${jwt.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public UserPrincipal get(Long userId, Function<Long, UserPrincipal> loader) {
+        return lookup(userId, loader);
+    }
+
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        return lookup(username, loader);
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> userId.equals(entry.principal.getId()));
+        }
+    }
+
+    public void invalidate(String usernameOrEmail) {
+        synchronized (entries) {
+            entries.remove(usernameOrEmail);
+            entries.values().removeIf(entry -> usernameOrEmail.equals(entry.principal.getUsername())
+                    || usernameOrEmail.equals(entry.principal.getEmail()));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private <K> UserPrincipal lookup(K key, Function<K, UserPrincipal> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt < ttlMillis) {
+                return entry.principal;
+            }
+        }
+
+        UserPrincipal principal = loader.apply(key);
+        synchronized (entries) {
+            entries.put(key, new Entry(principal, now));
+        }
+        return principal;
+    }
+
+    private record Entry(UserPrincipal principal, long loadedAt) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.finance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stocks, funds and everything else that is not crypto.
+ */
+@Component
+@ConditionalOnProperty(prefix = "api.alpha-vantage", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AlphaVantageProvider implements MarketDataProvider {
+
+    private final WebClient webClient = WebClient.builder().build();
+
+    private final String baseUrl;
+    private final String apiKey;
+    private final int priority;
+    private final Duration timeout;
+    private final Duration historyTimeout;
+    private final ConcurrencyLimiter limiter;
+
+    public AlphaVantageProvider(@Value("${api.alpha-vantage.base-url}") String baseUrl,
+                                @Value("${api.alpha-vantage.api-key}") String apiKey,
+                                @Value("${api.alpha-vantage.priority:10}") int priority,
+                                @Value("${api.alpha-vantage.max-concurrency:4}") int maxConcurrency,
+                                @Value("${api.alpha-vantage.max-queued:64}") int maxQueued,
+                                @Value("${api.alpha-vantage.timeout-ms:3000}") long timeoutMs,
+                                @Value("${api.alpha-vantage.history-timeout-ms:15000}") long historyTimeoutMs) {
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.priority = priority;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.historyTimeout = Duration.ofMillis(historyTimeoutMs);
+        this.limiter = new ConcurrencyLimiter(maxConcurrency, maxQueued);
+    }
+
+    @Override
+    public String getName() {
+        return "alpha-vantage";
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean supports(String assetType) {
+        return !QuoteCache.CRYPTO.equalsIgnoreCase(assetType);
+    }
+
+    @Override
+    public Mono<QuoteCache.Quote> getQuote(String symbol, String assetType) {
+        String url = baseUrl + "?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=" + apiKey;
+
+        return limiter.limit(webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(timeout))
+                .map(response -> {
+                    Map<String, Object> globalQuote = (Map<String, Object>) response.get("Global Quote");
+                    if (globalQuote != null && globalQuote.get("05. price") != null) {
+                        String priceStr = (String) globalQuote.get("05. price");
+                        return new QuoteCache.Quote(new BigDecimal(priceStr), QuoteCache.STOCK);
+                    }
+                    throw new RuntimeException("Price not found");
+                });
+    }
+
+    @Override
+    public Mono<PriceHistoryStore.Series> getHistory(String symbol, String assetType, int days) {
+        // The compact series covers the last 100 trading days
+        String outputSize = days > 100 ? "full" : "compact";
+        String url = baseUrl + "?function=TIME_SERIES_DAILY&symbol=" + symbol
+                + "&outputsize=" + outputSize + "&apikey=" + apiKey;
+        long since = LocalDate.now(ZoneOffset.UTC).minusDays(days).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        return limiter.limit(webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(historyTimeout))
+                .map(response -> {
+                    Map<String, Map<String, Object>> daily = (Map<String, Map<String, Object>>) response.get("Time Series (Daily)");
+                    if (daily == null) {
+                        throw new RuntimeException("Price history not found");
+                    }
+                    TreeMap<Long, Double> closes = new TreeMap<>();
+                    daily.forEach((date, values) -> {
+                        long timestamp = LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+                        if (timestamp >= since && values.get("4. close") != null) {
+                            closes.put(timestamp, Double.parseDouble((String) values.get("4. close")));
+                        }
+                    });
+                    return PriceHistoryStore.Series.of(symbol, closes);
+                });
+    }
+}
@@ -0,0 +1,392 @@
+package com.finance.service;
+
+import com.finance.model.Expense;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports expenses and trades from CSV or OFX files. The file is read as a
+ * stream in chunks; each chunk is converted and validated in parallel, then
+ * persisted in JDBC batches. Invalid rows are skipped and reported by line,
+ * while a malformed file rolls back the whole import.
+ */
+@Service
+public class BulkImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final DateTimeFormatter SPACED_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    public enum Format {
+        CSV, OFX;
+
+        /**
+         * Uses the explicit format if given, otherwise the file extension.
+         */
+        public static Format resolve(String format, String filename) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unsupported import format: " + format);
+                }
+            }
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            return name.endsWith(".ofx") || name.endsWith(".qfx") ? OFX : CSV;
+        }
+    }
+
+    public record RowError(long line, String message) {
+    }
+
+    public record ImportResult(long imported, long skipped, long failed, List<RowError> errors) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Own pool rather than the common one: its workers get the application class
+    // loader, which the validator needs to load the EL implementation from the jar
+    private final ForkJoinPool validationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setContextClassLoader(BulkImportService.class.getClassLoader());
+        thread.setName("import-validation-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final ExpenseRollupService expenseRollupService;
+    private final PositionService positionService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+
+    public BulkImportService(UserRepository userRepository,
+                             Validator validator,
+                             ExpenseRollupService expenseRollupService,
+                             PositionService positionService,
+                             PortfolioSnapshotService portfolioSnapshotService) {
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.expenseRollupService = expenseRollupService;
+        this.positionService = positionService;
+        this.portfolioSnapshotService = portfolioSnapshotService;
+    }
+
+    @Transactional
+    public ImportResult importExpenses(Long userId, InputStreamSource source, Format format,
+                                       String defaultCategory) throws IOException {
+        Tally tally = new Tally();
+        Function<ImportRecord, Expense> converter = record -> toExpense(record, defaultCategory);
+
+        try (Reader reader = open(source)) {
+            if (format == Format.OFX) {
+                OfxRecordReader records = new OfxRecordReader(reader, OfxRecordReader.BANK_TRANSACTIONS);
+                importRecords(userId, records::next, converter, Expense::setUser, tally);
+            } else {
+                CsvRecordReader records = new CsvRecordReader(reader);
+                importRecords(userId, records::next, converter, Expense::setUser, tally);
+            }
+        }
+
+        if (tally.imported > 0) {
+            expenseRollupService.rebuild(userId);
+        }
+        return tally.result();
+    }
+
+    @Transactional
+    public ImportResult importTrades(Long userId, InputStreamSource source, Format format,
+                                     String defaultAssetType) throws IOException {
+        Tally tally = new Tally();
+        Set<String> symbols = new HashSet<>();
+        LocalDateTime[] earliestTrade = {null};
+        OwnerSetter<Trade> owner = (trade, user) -> {
+            trade.setUser(user);
+            symbols.add(trade.getSymbol());
+            if (earliestTrade[0] == null || trade.getTradeDate().isBefore(earliestTrade[0])) {
+                earliestTrade[0] = trade.getTradeDate();
+            }
+        };
+
+        try (Reader reader = open(source)) {
+            if (format == Format.OFX) {
+                Map<String, String> tickers;
+                try (Reader securities = open(source)) {
+                    tickers = OfxRecordReader.readTickers(securities);
+                }
+                OfxRecordReader records = new OfxRecordReader(reader, OfxRecordReader.INVESTMENT_TRANSACTIONS);
+                importRecords(userId, records::next, record -> toTrade(record, defaultAssetType, tickers),
+                        owner, tally);
+            } else {
+                CsvRecordReader records = new CsvRecordReader(reader);
+                importRecords(userId, records::next, record -> toTrade(record, defaultAssetType, Map.of()),
+                        owner, tally);
+            }
+        }
+
+        if (!symbols.isEmpty()) {
+            positionService.tradesChanged(userId, symbols);
+            portfolioSnapshotService.tradesChanged(userId, earliestTrade[0]);
+        }
+        return tally.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    private <T> void importRecords(Long userId, RecordSource records, Function<ImportRecord, T> converter,
+                                   OwnerSetter<T> owner, Tally tally) throws IOException {
+        List<ImportRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        ImportRecord record;
+        while ((record = records.next()) != null) {
+            chunk.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                persistChunk(userId, chunk, converter, owner, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(userId, chunk, converter, owner, tally);
+        }
+    }
+
+    private <T> void persistChunk(Long userId, List<ImportRecord> chunk, Function<ImportRecord, T> converter,
+                                  OwnerSetter<T> owner, Tally tally) {
+        // Parsing and bean validation are the CPU-heavy part; inserts stay on this thread
+        List<Converted<T>> converted = validationPool.submit(() -> chunk.parallelStream()
+                .map(record -> convert(record, converter))
+                .toList()).join();
+
+        User user = userRepository.getReferenceById(userId);
+        for (Converted<T> row : converted) {
+            if (row.error() != null) {
+                tally.fail(row.line(), row.error());
+            } else if (row.entity() == null) {
+                tally.skipped++;
+            } else {
+                owner.set(row.entity(), user);
+                entityManager.persist(row.entity());
+                tally.imported++;
+            }
+        }
+
+        // Send the batch and keep the persistence context from growing with the file
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> Converted<T> convert(ImportRecord record, Function<ImportRecord, T> converter) {
+        T entity;
+        try {
+            entity = converter.apply(record);
+        } catch (IllegalArgumentException e) {
+            return new Converted<>(record.line(), null, e.getMessage());
+        }
+        if (entity == null) {
+            return new Converted<>(record.line(), null, null);
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return new Converted<>(record.line(), null, message);
+        }
+        return new Converted<>(record.line(), entity, null);
+    }
+
+    /**
+     * Builds an expense from a CSV row or an OFX statement line. OFX credits
+     * are not expenses and are skipped.
+     */
+    private Expense toExpense(ImportRecord record, String defaultCategory) {
+        Expense expense = new Expense();
+        if (record.fields().containsKey(OfxRecordReader.KIND)) {
+            BigDecimal amount = parseDecimal(record.get("trnamt"), "amount");
+            if (amount.signum() >= 0) {
+                return null;
+            }
+            expense.setAmount(amount.negate());
+            expense.setDescription(record.get("name", "payee", "memo"));
+            expense.setNotes(record.get("memo"));
+            expense.setExpenseDate(parseDate(record.get("dtposted", "dtuser")));
+            expense.setCategory(defaultCategory);
+        } else {
+            expense.setAmount(parseDecimal(record.get("amount"), "amount"));
+            expense.setDescription(record.get("description", "name", "payee", "merchant"));
+            expense.setNotes(record.get("notes", "memo"));
+            expense.setExpenseDate(parseDate(record.get("date", "expensedate", "transactiondate")));
+            String category = record.get("category");
+            expense.setCategory(category != null ? category : defaultCategory);
+        }
+        return expense;
+    }
+
+    /**
+     * Builds a trade from a CSV row or an OFX buy/sell, resolving OFX security
+     * ids to tickers where the statement lists them.
+     */
+    private Trade toTrade(ImportRecord record, String defaultAssetType, Map<String, String> tickers) {
+        Trade trade = new Trade();
+        String kind = record.fields().get(OfxRecordReader.KIND);
+        String assetType;
+        if (kind != null) {
+            trade.setTradeType(kind.startsWith("BUY") ? Trade.TradeType.BUY : Trade.TradeType.SELL);
+            String securityId = record.get("uniqueid");
+            trade.setSymbol(securityId != null ? tickers.getOrDefault(securityId, securityId) : null);
+            trade.setQuantity(parseDecimal(record.get("units"), "units").abs());
+            trade.setPricePerUnit(parseDecimal(record.get("unitprice"), "unitprice"));
+            trade.setFees(sumOf(record.get("commission"), record.get("fees")));
+            trade.setNotes(record.get("memo"));
+            trade.setTradeDate(parseDate(record.get("dttrade")));
+            assetType = kind.endsWith("MF") ? "FUND" : kind.endsWith("DEBT") ? "BOND" : defaultAssetType;
+        } else {
+            trade.setTradeType(parseTradeType(record.get("tradetype", "type", "side", "action")));
+            trade.setSymbol(record.get("symbol", "ticker"));
+            trade.setQuantity(parseDecimal(record.get("quantity", "qty", "shares", "units"), "quantity").abs());
+            trade.setPricePerUnit(parseDecimal(record.get("priceperunit", "price", "unitprice"), "price"));
+            trade.setFees(sumOf(record.get("fees", "fee", "commission")));
+            trade.setNotes(record.get("notes", "memo"));
+            trade.setTradeDate(parseDate(record.get("date", "tradedate")));
+            String type = record.get("assettype");
+            assetType = type != null ? type.toUpperCase(Locale.ROOT) : defaultAssetType;
+        }
+
+        if (trade.getSymbol() != null) {
+            trade.setSymbol(trade.getSymbol().toUpperCase(Locale.ROOT));
+        }
+        trade.setAssetType(assetType);
+        trade.setTotalAmount(trade.getQuantity().multiply(trade.getPricePerUnit()));
+        return trade;
+    }
+
+    private static Trade.TradeType parseTradeType(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing trade type");
+        }
+        return switch (value.toUpperCase(Locale.ROOT)) {
+            case "BUY", "B", "BOUGHT" -> Trade.TradeType.BUY;
+            case "SELL", "S", "SOLD" -> Trade.TradeType.SELL;
+            default -> throw new IllegalArgumentException("Invalid trade type: " + value);
+        };
+    }
+
+    private static BigDecimal parseDecimal(String value, String column) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        try {
+            return new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static BigDecimal sumOf(String... values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (String value : values) {
+            if (value != null) {
+                sum = sum.add(parseDecimal(value, "fees").abs());
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Accepts ISO dates and date-times, "yyyy-MM-dd HH:mm[:ss]" and OFX
+     * dates (yyyyMMdd[HHmmss[.SSS]][[offset:TZ]]).
+     */
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        try {
+            if (value.length() >= 8 && value.chars().limit(8).allMatch(Character::isDigit)) {
+                LocalDate date = LocalDate.of(Integer.parseInt(value.substring(0, 4)),
+                        Integer.parseInt(value.substring(4, 6)), Integer.parseInt(value.substring(6, 8)));
+                if (value.length() >= 14 && value.chars().skip(8).limit(6).allMatch(Character::isDigit)) {
+                    return date.atTime(Integer.parseInt(value.substring(8, 10)),
+                            Integer.parseInt(value.substring(10, 12)), Integer.parseInt(value.substring(12, 14)));
+                }
+                return date.atStartOfDay();
+            }
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            if (value.indexOf('T') > 0) {
+                return LocalDateTime.parse(value);
+            }
+            return LocalDateTime.parse(value, SPACED_DATE_TIME);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static Reader open(InputStreamSource source) throws IOException {
+        return new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface RecordSource {
+        ImportRecord next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface OwnerSetter<T> {
+        void set(T entity, User user);
+    }
+
+    private record Converted<T>(long line, T entity, String error) {
+    }
+
+    private static class Tally {
+        long imported;
+        long skipped;
+        long failed;
+        final List<RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        ImportResult result() {
+            return new ImportResult(imported, skipped, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.finance.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Stops calling an upstream that keeps failing. While closed, the outcomes of
+ * the last calls are kept in a sliding window; once enough of them failed the
+ * breaker opens and rejects calls at once. After a cool-down it lets a few
+ * trial calls through and closes again if they all succeed.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Predicate<Throwable> ignored;
+
+    // Outcomes of the most recent calls while closed, true for a failure
+    private final boolean[] window;
+    private int windowHead;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openMillis, int halfOpenCalls, Predicate<Throwable> ignored) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.ignored = ignored;
+        this.window = new boolean[this.windowSize];
+    }
+
+    public <T> Mono<T> protect(Mono<T> source) {
+        return Mono.defer(() -> {
+            State admittedIn = tryAcquire();
+            if (admittedIn == null) {
+                rejections.increment();
+                return Mono.error(new CircuitOpenException(name));
+            }
+            return source
+                    .doOnSuccess(value -> onResult(admittedIn, false))
+                    .doOnError(error -> {
+                        if (ignored.test(error)) {
+                            onCancel(admittedIn);
+                        } else {
+                            onResult(admittedIn, true);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            onCancel(admittedIn);
+                        }
+                    });
+        });
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getOpenings() {
+        return openings.sum();
+    }
+
+    private synchronized State tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            halfOpenStarted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) {
+                return null;
+            }
+            halfOpenStarted++;
+        }
+        return state;
+    }
+
+    private synchronized void onResult(State admittedIn, boolean failed) {
+        if (failed) {
+            failures.increment();
+        } else {
+            successes.increment();
+        }
+        if (admittedIn != state) {
+            // Started before the last transition; it says nothing about the current state
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                state = State.CLOSED;
+                windowHead = 0;
+                windowCount = 0;
+                windowFailures = 0;
+            }
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (window[windowHead]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowHead] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowHead = (windowHead + 1) % windowSize;
+
+        if (windowCount >= minimumCalls && windowFailures * 100.0 / windowCount >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private synchronized void onCancel(State admittedIn) {
+        if (admittedIn == State.HALF_OPEN && state == State.HALF_OPEN && halfOpenStarted > halfOpenSucceeded) {
+            // Give the trial slot to the next caller
+            halfOpenStarted--;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        openings.increment();
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(String name) {
+            super("Circuit breaker for " + name + " is open");
+        }
+    }
+}
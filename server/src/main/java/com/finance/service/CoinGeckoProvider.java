@@ -0,0 +1,98 @@
+package com.finance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Crypto assets, looked up by the lower-cased symbol as the CoinGecko id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "api.coingecko", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CoinGeckoProvider implements MarketDataProvider {
+
+    private final WebClient webClient = WebClient.builder().build();
+
+    private final String baseUrl;
+    private final int priority;
+    private final Duration timeout;
+    private final Duration historyTimeout;
+    private final ConcurrencyLimiter limiter;
+
+    public CoinGeckoProvider(@Value("${api.coingecko.base-url}") String baseUrl,
+                             @Value("${api.coingecko.priority:10}") int priority,
+                             @Value("${api.coingecko.max-concurrency:4}") int maxConcurrency,
+                             @Value("${api.coingecko.max-queued:64}") int maxQueued,
+                             @Value("${api.coingecko.timeout-ms:3000}") long timeoutMs,
+                             @Value("${api.coingecko.history-timeout-ms:15000}") long historyTimeoutMs) {
+        this.baseUrl = baseUrl;
+        this.priority = priority;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.historyTimeout = Duration.ofMillis(historyTimeoutMs);
+        this.limiter = new ConcurrencyLimiter(maxConcurrency, maxQueued);
+    }
+
+    @Override
+    public String getName() {
+        return "coingecko";
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean supports(String assetType) {
+        return QuoteCache.CRYPTO.equalsIgnoreCase(assetType);
+    }
+
+    @Override
+    public Mono<QuoteCache.Quote> getQuote(String symbol, String assetType) {
+        String url = baseUrl + "/simple/price?ids=" + symbol.toLowerCase() + "&vs_currencies=usd";
+
+        return limiter.limit(webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(timeout))
+                .map(response -> {
+                    Map<String, Object> cryptoData = (Map<String, Object>) response.get(symbol.toLowerCase());
+                    if (cryptoData != null && cryptoData.get("usd") instanceof Number price) {
+                        return new QuoteCache.Quote(BigDecimal.valueOf(price.doubleValue()), QuoteCache.CRYPTO);
+                    }
+                    throw new RuntimeException("Price not found");
+                });
+    }
+
+    @Override
+    public Mono<PriceHistoryStore.Series> getHistory(String symbol, String assetType, int days) {
+        // Ranges over 90 days come back with one point per day
+        String url = baseUrl + "/coins/" + symbol.toLowerCase() + "/market_chart?vs_currency=usd&days=" + days;
+
+        return limiter.limit(webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(historyTimeout))
+                .map(response -> {
+                    List<List<Number>> points = (List<List<Number>>) response.get("prices");
+                    if (points == null) {
+                        throw new RuntimeException("Price history not found");
+                    }
+                    TreeMap<Long, Double> prices = new TreeMap<>();
+                    for (List<Number> point : points) {
+                        prices.put(point.get(0).longValue(), point.get(1).doubleValue());
+                    }
+                    return PriceHistoryStore.Series.of(symbol, prices);
+                });
+    }
+}
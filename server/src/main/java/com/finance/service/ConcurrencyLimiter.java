@@ -0,0 +1,132 @@
+package com.finance.service;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Caps the number of in-flight calls to an upstream provider without holding
+ * a thread per waiting call. Calls over the limit wait in a bounded queue and
+ * start in order as earlier ones finish; a call arriving at a full queue
+ * fails at once with {@link QueueFullException}.
+ *
+ * Cancelling a call releases what it holds: a queued call leaves the queue
+ * and a running one cancels the upstream call and frees its slot.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final Queue<Task<?>> pending = new ArrayDeque<>();
+    private int active;
+    private boolean draining;
+    private long rejections;
+
+    public ConcurrencyLimiter(int maxConcurrency, int maxQueued) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    public <T> Mono<T> limit(Mono<T> source) {
+        return Mono.create(sink -> {
+            Task<T> task = new Task<>(source, sink);
+            synchronized (this) {
+                if (pending.size() >= maxQueued && active >= maxConcurrency) {
+                    rejections++;
+                    sink.error(new QueueFullException(maxConcurrency, maxQueued));
+                    return;
+                }
+                pending.add(task);
+            }
+            sink.onCancel(() -> cancel(task));
+            drain();
+        });
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return pending.size();
+    }
+
+    public synchronized long getRejections() {
+        return rejections;
+    }
+
+    private void cancel(Task<?> task) {
+        synchronized (this) {
+            if (pending.remove(task)) {
+                return;
+            }
+        }
+        // Already started; cancelling the upstream call frees the slot
+        task.subscription.dispose();
+    }
+
+    private void release() {
+        synchronized (this) {
+            active--;
+        }
+        drain();
+    }
+
+    /**
+     * Starts queued tasks while slots are free. Only one thread drains at a
+     * time and a task finishing synchronously only frees its slot, so a long
+     * queue of fast calls is worked off in this loop rather than by recursion.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        for (;;) {
+            Task<?> next;
+            synchronized (this) {
+                next = active < maxConcurrency ? pending.poll() : null;
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                active++;
+            }
+            next.start();
+        }
+    }
+
+    private final class Task<T> {
+        private final Mono<T> source;
+        private final MonoSink<T> sink;
+        private final Disposable.Swap subscription = Disposables.swap();
+
+        private Task(Mono<T> source, MonoSink<T> sink) {
+            this.source = source;
+            this.sink = sink;
+        }
+
+        private void start() {
+            if (subscription.isDisposed()) {
+                release();
+                return;
+            }
+            // A swap that was disposed meanwhile disposes this subscription too
+            subscription.update(source
+                    .doFinally(signal -> release())
+                    .subscribe(sink::success, sink::error, sink::success));
+        }
+    }
+
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException(int maxConcurrency, int maxQueued) {
+            super("Concurrency limit of " + maxConcurrency + " reached with " + maxQueued + " calls queued");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.finance.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV one record at a time. The first record is the header;
+ * quoted fields may contain separators, doubled quotes and line breaks.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long line;
+
+    public CsvRecordReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+        List<String> names = readFields();
+        if (names == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        if (!names.isEmpty() && names.get(0).startsWith("\uFEFF")) {
+            names.set(0, names.get(0).substring(1));
+        }
+        this.header = names.stream().map(ImportRecord::normalize).toList();
+    }
+
+    /**
+     * Returns the next record, or null at the end of the input. Blank lines
+     * are skipped.
+     */
+    public ImportRecord next() throws IOException {
+        while (true) {
+            long startLine = line + 1;
+            List<String> values = readFields();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new ImportRecord(startLine, fields);
+        }
+    }
+
+    private List<String> readFields() throws IOException {
+        String text = reader.readLine();
+        if (text == null) {
+            return null;
+        }
+        line++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field
+                text = reader.readLine();
+                if (text == null) {
+                    throw new IllegalArgumentException("Unterminated quoted field at line " + line);
+                }
+                line++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.finance.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Walks a JPA result stream inside a read-only transaction and hands each row
+ * to a writer, detaching rows as it goes so the persistence context does not
+ * grow with the result size.
+ */
+@Component
+public class EntityStreamer {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public EntityStreamer(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> void forEach(Supplier<Stream<T>> query, RowHandler<T> handler) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                rows.forEachOrdered(row -> {
+                    try {
+                        handler.handle(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    entityManager.detach(row);
+                });
+            }
+        });
+    }
+
+    /**
+     * Writes the rows as newline-delimited JSON, one object per line.
+     */
+    public <T> StreamingResponseBody ndjson(Supplier<Stream<T>> query, Class<T> type, Consumer<T> beforeWrite) {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        return (OutputStream out) -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Rows are separated by our own newlines, not Jackson's default space
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                forEach(query, row -> {
+                    beforeWrite.accept(row);
+                    writer.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                    if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                        generator.flush();
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void handle(T row) throws IOException;
+    }
+}
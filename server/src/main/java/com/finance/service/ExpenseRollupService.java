@@ -0,0 +1,255 @@
+package com.finance.service;
+
+import com.finance.model.Expense;
+import com.finance.model.ExpenseMonthlyRollup;
+import com.finance.repository.ExpenseMonthlyRollupRepository;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains per (user, month, category) expense totals on every write so the
+ * summary and date-range totals do not aggregate raw expense rows. Only the
+ * partial months at the edges of a date range are read from expenses.
+ *
+ * Writes lock the user row first. Two first expenses of the same month and
+ * category would otherwise both insert the rollup row and one would fail on
+ * its unique key; H2's MERGE does not prevent that either.
+ */
+@Service
+public class ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+
+    public ExpenseRollupService(ExpenseMonthlyRollupRepository rollupRepository,
+                                ExpenseRepository expenseRepository,
+                                UserRepository userRepository) {
+        this.rollupRepository = rollupRepository;
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+    }
+
+    // The write hooks run after the expense change has been saved. On the
+    // first write since rollups were introduced the rebuild already sees the
+    // change, so there is nothing left to adjust.
+
+    @Transactional
+    public void expenseAdded(Long userId, Expense expense) {
+        lockRollups(userId);
+        if (rebuildIfMissing(userId)) {
+            return;
+        }
+        adjust(userId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount(), 1);
+    }
+
+    @Transactional
+    public void expenseUpdated(Long userId, LocalDateTime previousDate, String previousCategory,
+                               BigDecimal previousAmount, Expense expense) {
+        lockRollups(userId);
+        if (rebuildIfMissing(userId)) {
+            return;
+        }
+        adjust(userId, previousDate, previousCategory, previousAmount.negate(), -1);
+        adjust(userId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount(), 1);
+    }
+
+    @Transactional
+    public void expenseRemoved(Long userId, Expense expense) {
+        lockRollups(userId);
+        if (rebuildIfMissing(userId)) {
+            return;
+        }
+        adjust(userId, expense.getExpenseDate(), expense.getCategory(), expense.getAmount().negate(), -1);
+    }
+
+    /**
+     * Applies the changes of several expense writes, touching each affected
+     * (month, category) rollup once. Runs after the writes have been flushed.
+     */
+    @Transactional
+    public void expensesChanged(Long userId, List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        lockRollups(userId);
+        if (rebuildIfMissing(userId)) {
+            return;
+        }
+
+        Map<String, Change> merged = new LinkedHashMap<>();
+        for (Change change : changes) {
+            merged.merge(key(monthStart(change.expenseDate()), change.category()), change, Change::plus);
+        }
+        for (Change change : merged.values()) {
+            if (change.count() != 0 || change.amount().signum() != 0) {
+                adjust(userId, change.expenseDate(), change.category(), change.amount(), change.count());
+            }
+        }
+    }
+
+    @Transactional
+    public BigDecimal getTotalExpenses(Long userId) {
+        ensureBuilt(userId);
+        BigDecimal total = rollupRepository.getTotalExpenses(userId);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    @Transactional
+    public List<Object[]> getExpensesByCategory(Long userId) {
+        ensureBuilt(userId);
+        return rollupRepository.getExpensesByCategory(userId);
+    }
+
+    /**
+     * Total of expenses dated between start and end, inclusive. Whole months
+     * come from the rollups; the partial months at either edge from raw rows.
+     */
+    @Transactional
+    public BigDecimal getTotalExpenses(Long userId, LocalDateTime start, LocalDateTime end) {
+        ensureBuilt(userId);
+
+        LocalDate firstFullMonth = monthStart(start);
+        if (firstFullMonth.atStartOfDay().isBefore(start)) {
+            firstFullMonth = firstFullMonth.plusMonths(1);
+        }
+        // Month after the last month that ends on or before end
+        LocalDate fullMonthsEnd = monthStart(end.plusNanos(1));
+
+        if (!firstFullMonth.isBefore(fullMonthsEnd)) {
+            return orZero(expenseRepository.getTotalExpensesByDateRange(userId, start, end));
+        }
+
+        BigDecimal total = orZero(rollupRepository.getTotalExpensesByMonthRange(userId, firstFullMonth, fullMonthsEnd));
+        LocalDateTime fullStart = firstFullMonth.atStartOfDay();
+        LocalDateTime fullEnd = fullMonthsEnd.atStartOfDay();
+        if (start.isBefore(fullStart)) {
+            total = total.add(orZero(expenseRepository.getTotalExpensesByDateRange(userId, start, fullStart.minusNanos(1))));
+        }
+        if (!end.isBefore(fullEnd)) {
+            total = total.add(orZero(expenseRepository.getTotalExpensesByDateRange(userId, fullEnd, end)));
+        }
+        return total;
+    }
+
+    /**
+     * Recomputes the rollups from the expenses table and overwrites the stored
+     * rows. Returns the differences found between the two.
+     */
+    @Transactional
+    public List<String> rebuild(Long userId) {
+        lockRollups(userId);
+        Map<String, ExpenseMonthlyRollup> expected = new HashMap<>();
+        for (Object[] row : expenseRepository.getMonthlyTotalsByCategory(userId)) {
+            LocalDate month = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+            ExpenseMonthlyRollup rollup = new ExpenseMonthlyRollup(null, month, (String) row[2]);
+            rollup.setTotalAmount((BigDecimal) row[3]);
+            rollup.setExpenseCount(((Number) row[4]).longValue());
+            expected.put(key(month, rollup.getCategory()), rollup);
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (ExpenseMonthlyRollup stored : rollupRepository.findByUserId(userId)) {
+            String key = key(stored.getMonthStart(), stored.getCategory());
+            ExpenseMonthlyRollup rollup = expected.remove(key);
+            if (rollup == null) {
+                mismatches.add(key + ": stored rollup has no expenses");
+                rollupRepository.delete(stored);
+                continue;
+            }
+            if (stored.getTotalAmount().compareTo(rollup.getTotalAmount()) != 0
+                    || stored.getExpenseCount() != rollup.getExpenseCount()) {
+                mismatches.add(key + ": stored total=" + stored.getTotalAmount() + " count=" + stored.getExpenseCount()
+                        + " expected total=" + rollup.getTotalAmount() + " count=" + rollup.getExpenseCount());
+                stored.setTotalAmount(rollup.getTotalAmount());
+                stored.setExpenseCount(rollup.getExpenseCount());
+                rollupRepository.save(stored);
+            }
+        }
+
+        for (Map.Entry<String, ExpenseMonthlyRollup> missing : expected.entrySet()) {
+            mismatches.add(missing.getKey() + ": rollup was missing");
+            missing.getValue().setUser(userRepository.getReferenceById(userId));
+            rollupRepository.save(missing.getValue());
+        }
+
+        return mismatches;
+    }
+
+    private void lockRollups(Long userId) {
+        userRepository.lockById(userId);
+    }
+
+    private void ensureBuilt(Long userId) {
+        if (!rollupRepository.existsByUserId(userId) && expenseRepository.existsByUserId(userId)) {
+            // Expenses recorded before rollups were maintained
+            rebuild(userId);
+        }
+    }
+
+    private boolean rebuildIfMissing(Long userId) {
+        if (rollupRepository.existsByUserId(userId)) {
+            return false;
+        }
+        rebuild(userId);
+        return true;
+    }
+
+    private void adjust(Long userId, LocalDateTime expenseDate, String category, BigDecimal delta, int countDelta) {
+        LocalDate month = monthStart(expenseDate);
+        ExpenseMonthlyRollup rollup = rollupRepository.findByUserIdAndMonthStartAndCategory(userId, month, category)
+                .orElseGet(() -> new ExpenseMonthlyRollup(userRepository.getReferenceById(userId), month, category));
+
+        rollup.setTotalAmount(rollup.getTotalAmount().add(delta));
+        rollup.setExpenseCount(rollup.getExpenseCount() + countDelta);
+
+        if (rollup.getExpenseCount() <= 0) {
+            if (rollup.getId() != null) {
+                rollupRepository.delete(rollup);
+            }
+            return;
+        }
+        rollupRepository.save(rollup);
+    }
+
+    /**
+     * Signed change to the rollup of the month and category of expenseDate.
+     */
+    public record Change(LocalDateTime expenseDate, String category, BigDecimal amount, int count) {
+
+        public static Change added(Expense expense) {
+            return new Change(expense.getExpenseDate(), expense.getCategory(), expense.getAmount(), 1);
+        }
+
+        public static Change removed(Expense expense) {
+            return new Change(expense.getExpenseDate(), expense.getCategory(), expense.getAmount().negate(), -1);
+        }
+
+        Change plus(Change other) {
+            return new Change(expenseDate, category, amount.add(other.amount), count + other.count);
+        }
+    }
+
+    private static LocalDate monthStart(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().withDayOfMonth(1);
+    }
+
+    private static String key(LocalDate month, String category) {
+        return month + "/" + category;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,231 @@
+package com.finance.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a provider with a {@link CircuitBreaker} and a {@link TokenBucket}, so
+ * a provider that is failing or out of quota is skipped without a round trip
+ * and the next one is asked at once. Quotes can also be hedged: when the
+ * first attempt has not answered after a delay a second one is started, and
+ * whichever answers first wins.
+ *
+ * Settings are read per provider from {@code api.<name>.circuit-breaker.*},
+ * {@code api.<name>.rate-limit.*} and {@code api.<name>.hedge-delay-ms}.
+ *
+ * Every upstream call is timed under {@code market.provider.requests}; the
+ * meters are registered once up front so recording a call only updates them.
+ */
+public class GuardedMarketDataProvider implements MarketDataProvider {
+
+    private final MarketDataProvider delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final TokenBucket rateLimit;
+    private final Duration hedgeDelay;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private final Timer quoteSuccesses;
+    private final Timer quoteFailures;
+    private final Timer historySuccesses;
+    private final Timer historyFailures;
+
+    public GuardedMarketDataProvider(MarketDataProvider delegate, CircuitBreaker circuitBreaker,
+                                     TokenBucket rateLimit, Duration hedgeDelay, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimit = rateLimit;
+        this.hedgeDelay = hedgeDelay;
+
+        Tags tags = Tags.of("provider", delegate.getName());
+        this.quoteSuccesses = requestTimer(registry, tags, "quote", "success");
+        this.quoteFailures = requestTimer(registry, tags, "quote", "error");
+        this.historySuccesses = requestTimer(registry, tags, "history", "success");
+        this.historyFailures = requestTimer(registry, tags, "history", "error");
+
+        if (circuitBreaker != null) {
+            Gauge.builder("market.provider.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                    .description("0 closed, 1 open, 2 half-open")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("market.provider.rejections", circuitBreaker, CircuitBreaker::getRejections)
+                    .tags(tags).tag("reason", "circuit_open")
+                    .register(registry);
+            FunctionCounter.builder("market.provider.circuit.openings", circuitBreaker, CircuitBreaker::getOpenings)
+                    .tags(tags)
+                    .register(registry);
+        }
+        if (rateLimit != null) {
+            FunctionCounter.builder("market.provider.rejections", rateLimit, TokenBucket::getRejections)
+                    .tags(tags).tag("reason", "rate_limited")
+                    .register(registry);
+            Gauge.builder("market.provider.rate.limit.available", rateLimit, TokenBucket::getAvailable)
+                    .tags(tags)
+                    .register(registry);
+        }
+        if (hedgeDelay != null) {
+            FunctionCounter.builder("market.provider.hedges", hedges, LongAdder::sum)
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("market.provider.hedge.wins", hedgeWins, LongAdder::sum)
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    public static GuardedMarketDataProvider fromEnvironment(MarketDataProvider delegate, Environment env,
+                                                            MeterRegistry registry) {
+        String prefix = "api." + delegate.getName() + ".";
+
+        CircuitBreaker circuitBreaker = null;
+        if (env.getProperty(prefix + "circuit-breaker.enabled", Boolean.class, true)) {
+            circuitBreaker = new CircuitBreaker(delegate.getName(),
+                    env.getProperty(prefix + "circuit-breaker.window-size", Integer.class, 20),
+                    env.getProperty(prefix + "circuit-breaker.minimum-calls", Integer.class, 5),
+                    env.getProperty(prefix + "circuit-breaker.failure-rate-threshold", Double.class, 50.0),
+                    env.getProperty(prefix + "circuit-breaker.open-ms", Long.class, 30000L),
+                    env.getProperty(prefix + "circuit-breaker.half-open-calls", Integer.class, 2),
+                    error -> error instanceof TokenBucket.RateLimitedException
+                            || error instanceof ConcurrencyLimiter.QueueFullException);
+        }
+
+        TokenBucket rateLimit = null;
+        int permits = env.getProperty(prefix + "rate-limit.permits", Integer.class, 0);
+        if (permits > 0) {
+            rateLimit = new TokenBucket(
+                    env.getProperty(prefix + "rate-limit.burst", Integer.class, permits),
+                    permits,
+                    env.getProperty(prefix + "rate-limit.period-ms", Long.class, 60000L));
+        }
+
+        long hedgeDelayMs = env.getProperty(prefix + "hedge-delay-ms", Long.class, 0L);
+        return new GuardedMarketDataProvider(delegate, circuitBreaker, rateLimit,
+                hedgeDelayMs > 0 ? Duration.ofMillis(hedgeDelayMs) : null, registry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public int getPriority() {
+        return delegate.getPriority();
+    }
+
+    @Override
+    public boolean supports(String assetType) {
+        return delegate.supports(assetType);
+    }
+
+    @Override
+    public boolean isSynthetic() {
+        return delegate.isSynthetic();
+    }
+
+    @Override
+    public Mono<QuoteCache.Quote> getQuote(String symbol, String assetType) {
+        Supplier<Mono<QuoteCache.Quote>> call = () -> limited(() ->
+                timed(delegate.getQuote(symbol, assetType), quoteSuccesses, quoteFailures));
+        return protect(hedgeDelay != null ? hedged(call) : call.get());
+    }
+
+    @Override
+    public Mono<PriceHistoryStore.Series> getHistory(String symbol, String assetType, int days) {
+        return protect(limited(() ->
+                timed(delegate.getHistory(symbol, assetType, days), historySuccesses, historyFailures)));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (circuitBreaker != null) {
+            stats.put("state", circuitBreaker.getState().name());
+            stats.put("successes", circuitBreaker.getSuccesses());
+            stats.put("failures", circuitBreaker.getFailures());
+            stats.put("breakerRejections", circuitBreaker.getRejections());
+            stats.put("breakerOpenings", circuitBreaker.getOpenings());
+        }
+        if (rateLimit != null) {
+            stats.put("availablePermits", Math.floor(rateLimit.getAvailable()));
+            stats.put("rateLimitRejections", rateLimit.getRejections());
+        }
+        if (hedgeDelay != null) {
+            stats.put("hedges", hedges.sum());
+            stats.put("hedgeWins", hedgeWins.sum());
+        }
+        return stats;
+    }
+
+    private <T> Mono<T> protect(Mono<T> call) {
+        return circuitBreaker != null ? circuitBreaker.protect(call) : call;
+    }
+
+    /**
+     * Running out of quota fails fast but is not counted against the breaker,
+     * which only sees calls that were actually made.
+     */
+    private <T> Mono<T> limited(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> rateLimit == null || rateLimit.tryAcquire()
+                ? call.get()
+                : Mono.error(new TokenBucket.RateLimitedException(delegate.getName())));
+    }
+
+    private static <T> Mono<T> timed(Mono<T> call, Timer successes, Timer failures) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> successes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> failures.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private static Timer requestTimer(MeterRegistry registry, Tags tags, String operation, String outcome) {
+        return Timer.builder("market.provider.requests")
+                .description("Upstream market data calls")
+                .tags(tags).tag("operation", operation).tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            // A primary that fails before the hedge is due fails the call at once
+            Sinks.One<Boolean> failedEarly = Sinks.one();
+            AtomicBoolean hedgeStarted = new AtomicBoolean();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+            Mono<T> primary = call.get()
+                    .doOnError(e -> {
+                        primaryError.set(e);
+                        if (!hedgeStarted.get()) {
+                            failedEarly.tryEmitValue(true);
+                        }
+                    });
+            Mono<T> hedge = Mono.delay(hedgeDelay)
+                    .takeUntilOther(failedEarly.asMono())
+                    .flatMap(tick -> {
+                        hedgeStarted.set(true);
+                        hedges.increment();
+                        return call.get();
+                    })
+                    .doOnNext(value -> hedgeWins.increment());
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.finance.service;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One row of an imported file: its line number in the source and its fields,
+ * keyed by normalized column or tag name.
+ */
+public record ImportRecord(long line, Map<String, String> fields) {
+
+    /**
+     * Returns the first non-blank value among the given names, or null.
+     */
+    public String get(String... names) {
+        for (String name : names) {
+            String value = fields.get(name);
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lower-cases a column name and drops everything but letters and digits,
+     * so "Price Per Unit", "price_per_unit" and "pricePerUnit" all match.
+     */
+    public static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (char c : name.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
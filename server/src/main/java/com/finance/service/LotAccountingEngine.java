@@ -0,0 +1,207 @@
+package com.finance.service;
+
+import com.finance.model.Trade;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches SELL trades against open BUY lots and reports realized and
+ * unrealized P&L per symbol.
+ *
+ * The matching loop works on scaled longs (quantities in 1e-8 units, prices
+ * in cents, money in 1e-4 units) so that large histories do not allocate a
+ * BigDecimal chain per trade. BigDecimal is only used at the edges.
+ */
+@Component
+public class LotAccountingEngine {
+
+    public enum CostMethod {
+        FIFO, LIFO, AVERAGE
+    }
+
+    static final int QUANTITY_SCALE = 8;
+    static final int PRICE_SCALE = 2;
+    static final int MONEY_SCALE = 4;
+
+    // quantity (1e-8) * price (1e-2) / 1e6 = money (1e-4)
+    private static final long PRODUCT_TO_MONEY = 1_000_000L;
+
+    /**
+     * Runs the given trades, which must be ordered by trade date and id, through
+     * the chosen cost method. Symbols without a current price report no
+     * unrealized P&L.
+     */
+    public Map<String, SymbolProfitLoss> calculate(List<Trade> tradesInOrder, CostMethod method,
+                                                   Map<String, BigDecimal> currentPrices) {
+        Map<String, LotBook> books = new LinkedHashMap<>();
+
+        for (Trade trade : tradesInOrder) {
+            LotBook book = books.computeIfAbsent(trade.getSymbol(), symbol -> new LotBook(method));
+            long quantity = toScaled(trade.getQuantity(), QUANTITY_SCALE);
+            long price = toScaled(trade.getPricePerUnit(), PRICE_SCALE);
+
+            if (trade.getTradeType() == Trade.TradeType.BUY) {
+                book.buy(quantity, price);
+            } else {
+                book.sell(quantity, price);
+            }
+        }
+
+        Map<String, SymbolProfitLoss> result = new LinkedHashMap<>();
+        books.forEach((symbol, book) -> {
+            BigDecimal currentPrice = currentPrices.get(symbol);
+            long marketValue = currentPrice != null
+                    ? mulDiv(book.openQuantity, toScaled(currentPrice, PRICE_SCALE), PRODUCT_TO_MONEY)
+                    : 0;
+            long costBasis = book.openCost();
+
+            result.put(symbol, new SymbolProfitLoss(
+                    symbol,
+                    BigDecimal.valueOf(book.openQuantity, QUANTITY_SCALE),
+                    BigDecimal.valueOf(costBasis, MONEY_SCALE),
+                    BigDecimal.valueOf(book.realized, MONEY_SCALE),
+                    currentPrice != null ? BigDecimal.valueOf(marketValue - costBasis, MONEY_SCALE) : null,
+                    BigDecimal.valueOf(book.unmatchedSellQuantity, QUANTITY_SCALE)
+            ));
+        });
+        return result;
+    }
+
+    static long toScaled(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Computes a * b / divisor, rounded half up, using 64-bit arithmetic unless
+     * the intermediate product overflows.
+     */
+    static long mulDiv(long a, long b, long divisor) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            long quotient = low / divisor;
+            long remainder = low % divisor;
+            if (Math.abs(remainder) * 2 >= divisor) {
+                quotient += low < 0 ? -1 : 1;
+            }
+            return quotient;
+        }
+        return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * Open lots of one symbol, held in a deque of parallel primitive arrays.
+     * AVERAGE keeps a single pooled lot.
+     */
+    private static final class LotBook {
+        private final CostMethod method;
+
+        private long[] lotQuantity = new long[8];
+        private long[] lotPrice = new long[8];
+        private int head;
+        private int tail;
+
+        private long openQuantity;
+        private long averagePoolCost;
+        private long realized;
+        private long unmatchedSellQuantity;
+
+        LotBook(CostMethod method) {
+            this.method = method;
+        }
+
+        void buy(long quantity, long price) {
+            openQuantity += quantity;
+            if (method == CostMethod.AVERAGE) {
+                averagePoolCost += mulDiv(quantity, price, PRODUCT_TO_MONEY);
+                return;
+            }
+            if (tail == lotQuantity.length) {
+                grow();
+            }
+            lotQuantity[tail] = quantity;
+            lotPrice[tail] = price;
+            tail++;
+        }
+
+        void sell(long quantity, long price) {
+            long remaining = Math.min(quantity, openQuantity);
+            unmatchedSellQuantity += quantity - remaining;
+            openQuantity -= remaining;
+
+            if (method == CostMethod.AVERAGE) {
+                if (remaining > 0) {
+                    long heldBefore = openQuantity + remaining;
+                    long matchedCost = mulDiv(averagePoolCost, remaining, heldBefore);
+                    averagePoolCost -= matchedCost;
+                    realized += mulDiv(remaining, price, PRODUCT_TO_MONEY) - matchedCost;
+                }
+                return;
+            }
+
+            while (remaining > 0) {
+                int lot = method == CostMethod.FIFO ? head : tail - 1;
+                long matched = Math.min(remaining, lotQuantity[lot]);
+                realized += mulDiv(matched, price - lotPrice[lot], PRODUCT_TO_MONEY);
+                lotQuantity[lot] -= matched;
+                remaining -= matched;
+
+                if (lotQuantity[lot] == 0) {
+                    if (method == CostMethod.FIFO) {
+                        head++;
+                    } else {
+                        tail--;
+                    }
+                }
+            }
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        long openCost() {
+            if (method == CostMethod.AVERAGE) {
+                return averagePoolCost;
+            }
+            long cost = 0;
+            for (int i = head; i < tail; i++) {
+                cost += mulDiv(lotQuantity[i], lotPrice[i], PRODUCT_TO_MONEY);
+            }
+            return cost;
+        }
+
+        private void grow() {
+            int live = tail - head;
+            if (head > 0 && live < lotQuantity.length / 2) {
+                // Reclaim space freed by FIFO matching before growing
+                System.arraycopy(lotQuantity, head, lotQuantity, 0, live);
+                System.arraycopy(lotPrice, head, lotPrice, 0, live);
+            } else {
+                long[] quantities = Arrays.copyOfRange(lotQuantity, head, head + lotQuantity.length * 2);
+                long[] prices = Arrays.copyOfRange(lotPrice, head, head + lotPrice.length * 2);
+                lotQuantity = quantities;
+                lotPrice = prices;
+            }
+            head = 0;
+            tail = live;
+        }
+    }
+
+    public record SymbolProfitLoss(String symbol,
+                                   BigDecimal quantity,
+                                   BigDecimal costBasis,
+                                   BigDecimal realizedProfitLoss,
+                                   BigDecimal unrealizedProfitLoss,
+                                   BigDecimal unmatchedSellQuantity) {
+    }
+}
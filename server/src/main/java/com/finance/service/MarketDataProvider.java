@@ -0,0 +1,36 @@
+package com.finance.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of quotes and daily price history. {@link MarketDataService} asks
+ * the enabled providers that support an asset type in priority order and
+ * moves on to the next one when a call fails.
+ */
+public interface MarketDataProvider {
+
+    String getName();
+
+    /**
+     * Lower values are asked first.
+     */
+    int getPriority();
+
+    boolean supports(String assetType);
+
+    /**
+     * Whether prices are made up. Synthetic prices are not stored as price
+     * history while a real provider is configured.
+     */
+    default boolean isSynthetic() {
+        return false;
+    }
+
+    Mono<QuoteCache.Quote> getQuote(String symbol, String assetType);
+
+    /**
+     * Daily closing prices for roughly the last given number of days, oldest
+     * first.
+     */
+    Mono<PriceHistoryStore.Series> getHistory(String symbol, String assetType, int days);
+}
@@ -1,112 +1,184 @@
 package com.finance.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+/**
+ * Resolves prices through the configured {@link MarketDataProvider}s. A known
+ * asset type only asks the providers that support it; an unknown one asks
+ * every provider. Either way providers are tried in priority order until one
+ * answers. Each provider is wrapped in a {@link GuardedMarketDataProvider}, so
+ * one that is failing or out of quota is passed over without a round trip.
+ */
 @Service
 public class MarketDataService {
 
-    @Value("${api.alpha-vantage.api-key}")
-    private String alphaVantageApiKey;
+    @Value("${api.price-lookup.max-concurrency:8}")
+    private int priceLookupConcurrency;
 
-    @Value("${api.alpha-vantage.base-url}")
-    private String alphaVantageBaseUrl;
+    private final QuoteCache quoteCache;
 
-    @Value("${api.coingecko.base-url}")
-    private String coinGeckoBaseUrl;
+    private final PriceHistoryStore priceHistoryStore;
 
-    private final WebClient webClient = WebClient.builder().build();
+    private final Scheduler blockingScheduler;
 
-    public BigDecimal getCurrentPrice(String symbol) {
-        // Try to get stock price first
-        try {
-            return getStockPrice(symbol);
-        } catch (Exception e) {
-            // If stock price fails, try crypto
-            try {
-                return getCryptoPrice(symbol);
-            } catch (Exception ex) {
-                // Return mock data for demo purposes
-                return getMockPrice(symbol);
-            }
+    private final List<GuardedMarketDataProvider> providers;
+
+    private final boolean onlySyntheticProviders;
+
+    private final Timer priceLookups;
+
+    public MarketDataService(QuoteCache quoteCache,
+                             PriceHistoryStore priceHistoryStore,
+                             Scheduler blockingScheduler,
+                             List<MarketDataProvider> providers,
+                             Environment env,
+                             MeterRegistry meterRegistry) {
+        this.quoteCache = quoteCache;
+        this.priceHistoryStore = priceHistoryStore;
+        this.blockingScheduler = blockingScheduler;
+        this.providers = providers.stream()
+                .sorted(Comparator.comparingInt(MarketDataProvider::getPriority))
+                .map(provider -> GuardedMarketDataProvider.fromEnvironment(provider, env, meterRegistry))
+                .toList();
+        this.onlySyntheticProviders = providers.stream().allMatch(MarketDataProvider::isSynthetic);
+        this.priceLookups = Timer.builder("market.price.lookups")
+                .description("Batch price lookups, cache hits included")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up the current price of every distinct symbol concurrently, so the
+     * cost of a request depends on the number of symbols rather than trades.
+     * Symbols no provider could price are left out. The asset type of a
+     * symbol may be null when it is not known.
+     */
+    public Map<String, BigDecimal> getCurrentPrices(Map<String, String> assetTypesBySymbol) {
+        Map<String, BigDecimal> prices = getCurrentPricesReactive(assetTypesBySymbol).block();
+        return prices != null ? prices : Collections.emptyMap();
+    }
+
+    public Mono<Map<String, BigDecimal>> getCurrentPricesReactive(Map<String, String> assetTypesBySymbol) {
+        if (assetTypesBySymbol == null || assetTypesBySymbol.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
         }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(assetTypesBySymbol.entrySet())
+                    .flatMap(entry -> getCurrentPriceReactive(entry.getKey(), entry.getValue())
+                                    .map(price -> Map.entry(entry.getKey(), price)),
+                            priceLookupConcurrency)
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+                    .doFinally(signal -> priceLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public BigDecimal getCurrentPrice(String symbol, String assetType) {
+        return getCurrentPriceReactive(symbol, assetType).block();
     }
 
-    private BigDecimal getStockPrice(String symbol) {
-        String url = alphaVantageBaseUrl + "?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=" + alphaVantageApiKey;
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> {
-                    Map<String, Object> globalQuote = (Map<String, Object>) response.get("Global Quote");
-                    if (globalQuote != null) {
-                        String priceStr = (String) globalQuote.get("05. price");
-                        return new BigDecimal(priceStr);
-                    }
-                    throw new RuntimeException("Price not found");
-                })
-                .block();
+    public Mono<BigDecimal> getCurrentPriceReactive(String symbol) {
+        return getCurrentPriceReactive(symbol, null);
     }
 
-    private BigDecimal getCryptoPrice(String symbol) {
-        String url = coinGeckoBaseUrl + "/simple/price?ids=" + symbol.toLowerCase() + "&vs_currencies=usd";
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> {
-                    Map<String, Object> cryptoData = (Map<String, Object>) response.get(symbol.toLowerCase());
-                    if (cryptoData != null) {
-                        Double price = (Double) cryptoData.get("usd");
-                        return BigDecimal.valueOf(price);
-                    }
-                    throw new RuntimeException("Price not found");
-                })
-                .block();
+    /**
+     * Empty when neither the cache nor any provider has a price.
+     */
+    public Mono<BigDecimal> getCurrentPriceReactive(String symbol, String assetType) {
+        return Mono.fromFuture(() -> quoteCache.get(symbol, assetType, key -> fetchQuote(key, assetType).toFuture()))
+                .onErrorResume(e -> Mono.empty());
     }
 
-    private BigDecimal getMockPrice(String symbol) {
-        // Mock prices for demo purposes
-        Map<String, BigDecimal> mockPrices = Map.of(
-            "AAPL", new BigDecimal("150.00"),
-            "GOOGL", new BigDecimal("2800.00"),
-            "MSFT", new BigDecimal("300.00"),
-            "TSLA", new BigDecimal("250.00"),
-            "AMZN", new BigDecimal("3300.00"),
-            "BTC", new BigDecimal("45000.00"),
-            "ETH", new BigDecimal("3000.00"),
-            "ADA", new BigDecimal("1.50"),
-            "DOT", new BigDecimal("25.00")
-        );
-        
-        return mockPrices.getOrDefault(symbol.toUpperCase(), new BigDecimal("100.00"));
+    public Map<String, Long> getQuoteCacheStats() {
+        return quoteCache.getStats();
     }
 
-    public Mono<Map<String, Object>> getStockQuote(String symbol) {
-        String url = alphaVantageBaseUrl + "?function=GLOBAL_QUOTE&symbol=" + symbol + "&apikey=" + alphaVantageApiKey;
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> (Map<String, Object>) response);
+    public List<String> getProviderNames() {
+        return providers.stream().map(MarketDataProvider::getName).toList();
+    }
+
+    /**
+     * Circuit breaker, rate limit and hedging counters of each provider.
+     */
+    public Map<String, Map<String, Object>> getProviderStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (GuardedMarketDataProvider provider : providers) {
+            stats.put(provider.getName(), provider.getStats());
+        }
+        return stats;
     }
 
-    public Mono<Map<String, Object>> getCryptoQuote(String symbol) {
-        String url = coinGeckoBaseUrl + "/coins/" + symbol.toLowerCase() + "/market_chart?vs_currency=usd&days=1&interval=hourly";
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> (Map<String, Object>) response);
+    /**
+     * Daily closing prices for roughly the last given number of days, oldest
+     * first, from the first provider of the asset type that has them.
+     */
+    public Mono<PriceHistoryStore.Series> getPriceHistory(String symbol, String assetType, int days) {
+        return firstAnswer(candidates(assetType), provider -> !provider.isSynthetic() || onlySyntheticProviders,
+                provider -> provider.getHistory(symbol, assetType, days), "price history of " + symbol);
+    }
+
+    private Mono<QuoteCache.Quote> fetchQuote(String symbol, String assetType) {
+        return firstAnswer(candidates(assetType), provider -> true,
+                provider -> provider.getQuote(symbol, assetType)
+                        .doOnNext(quote -> recordPrice(provider, symbol, quote.price())),
+                "price of " + symbol);
+    }
+
+    private List<GuardedMarketDataProvider> candidates(String assetType) {
+        if (assetType == null || assetType.isBlank()) {
+            return providers;
+        }
+        return providers.stream().filter(provider -> provider.supports(assetType)).toList();
+    }
+
+    private <T> Mono<T> firstAnswer(List<? extends MarketDataProvider> candidates,
+                                    Predicate<MarketDataProvider> eligible,
+                                    Function<MarketDataProvider, Mono<T>> call,
+                                    String what) {
+        Mono<T> result = Mono.error(() -> new IllegalStateException("No provider returned the " + what));
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            MarketDataProvider provider = candidates.get(i);
+            if (!eligible.test(provider)) {
+                continue;
+            }
+            Mono<T> fallback = result;
+            result = Mono.defer(() -> call.apply(provider))
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException(provider.getName() + " has no " + what)))
+                    .onErrorResume(e -> fallback);
+        }
+        return result;
+    }
+
+    private void recordPrice(MarketDataProvider provider, String symbol, BigDecimal price) {
+        if (provider.isSynthetic() && !onlySyntheticProviders) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        // Quotes arrive on the HTTP client's event loop, which must not wait on file I/O
+        blockingScheduler.schedule(() -> {
+            try {
+                priceHistoryStore.append(symbol, timestamp, price.doubleValue());
+            } catch (RuntimeException e) {
+                // History is best effort and must never fail a quote
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package com.finance.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads OFX statements one transaction at a time. Handles both OFX 1.x SGML,
+ * where leaf elements have no end tags, and OFX 2.x XML. Each aggregate named
+ * in the constructor becomes one record holding its leaf elements (keyed by
+ * lower-cased tag name) plus {@link #KIND}, the aggregate's own tag.
+ */
+public class OfxRecordReader implements Closeable {
+
+    public static final String KIND = "kind";
+
+    /** Bank and card statement lines. */
+    public static final Set<String> BANK_TRANSACTIONS = Set.of("STMTTRN");
+
+    /** Investment statement buys and sells. */
+    public static final Set<String> INVESTMENT_TRANSACTIONS = Set.of(
+            "BUYSTOCK", "SELLSTOCK", "BUYMF", "SELLMF", "BUYOTHER", "SELLOTHER", "BUYDEBT", "SELLDEBT");
+
+    private final BufferedReader reader;
+    private final Set<String> aggregates;
+    private long line = 1;
+    private int peeked = -2;
+
+    public OfxRecordReader(Reader reader, Set<String> aggregates) {
+        this.reader = new BufferedReader(reader);
+        this.aggregates = aggregates;
+    }
+
+    /**
+     * Maps security ids to tickers from the SECLIST of an investment
+     * statement, which OFX places after the transactions that refer to it.
+     */
+    public static Map<String, String> readTickers(Reader reader) throws IOException {
+        Map<String, String> tickers = new HashMap<>();
+        try (OfxRecordReader securities = new OfxRecordReader(reader, Set.of("SECINFO"))) {
+            ImportRecord security;
+            while ((security = securities.next()) != null) {
+                String uniqueId = security.get("uniqueid");
+                String ticker = security.get("ticker");
+                if (uniqueId != null && ticker != null) {
+                    tickers.put(uniqueId, ticker);
+                }
+            }
+        }
+        return tickers;
+    }
+
+    /**
+     * Returns the next transaction, or null at the end of the input.
+     */
+    public ImportRecord next() throws IOException {
+        Map<String, String> fields = null;
+        String aggregate = null;
+        long startLine = 0;
+        String openTag = null;
+
+        String token;
+        while ((token = nextToken()) != null) {
+            if (token.startsWith("</")) {
+                String name = token.substring(2, token.length() - 1).trim().toUpperCase(Locale.ROOT);
+                openTag = null;
+                if (fields != null && name.equals(aggregate)) {
+                    return new ImportRecord(startLine, fields);
+                }
+            } else if (token.startsWith("<")) {
+                String name = token.substring(1, token.length() - 1).trim().toUpperCase(Locale.ROOT);
+                if (fields == null && aggregates.contains(name)) {
+                    fields = new HashMap<>();
+                    fields.put(KIND, name);
+                    aggregate = name;
+                    startLine = line;
+                } else {
+                    openTag = name;
+                }
+            } else if (fields != null && openTag != null) {
+                fields.putIfAbsent(ImportRecord.normalize(openTag), unescape(token));
+                openTag = null;
+            }
+        }
+
+        if (fields != null) {
+            throw new IllegalArgumentException("Unterminated " + aggregate + " starting at line " + startLine);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the next tag (including its angle brackets) or non-blank text
+     * run, skipping XML declarations, processing instructions and comments.
+     */
+    private String nextToken() throws IOException {
+        while (true) {
+            int c = read();
+            while (c != -1 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+
+            StringBuilder token = new StringBuilder();
+            if (c == '<') {
+                while (c != -1 && c != '>') {
+                    token.append((char) c);
+                    c = read();
+                }
+                token.append('>');
+                if (token.length() > 1 && (token.charAt(1) == '?' || token.charAt(1) == '!')) {
+                    continue;
+                }
+                return token.toString();
+            }
+
+            while (c != -1 && c != '<') {
+                token.append((char) c);
+                c = read();
+            }
+            if (c == '<') {
+                peeked = c;
+            }
+            return token.toString().trim();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&nbsp;", " ")
+                .replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,238 @@
+package com.finance.service;
+
+import com.finance.model.PortfolioSnapshot;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.PortfolioSnapshotRepository;
+import com.finance.repository.PositionRepository;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes one row per (user, day) with the value of the holdings at that
+ * day's closing prices from {@link PriceHistoryStore}, so a multi-year chart
+ * is a single indexed range read.
+ *
+ * Snapshots cover completed UTC days up to yesterday. A trade write rewrites
+ * the snapshots from the trade's day on, starting from the holdings before
+ * that day as aggregated by the database; newly stored prices rewrite the
+ * days they affect for every holder of the symbol. Days without a stored
+ * price value the holding at its last trade price.
+ */
+@Service
+public class PortfolioSnapshotService {
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+    private final TradeRepository tradeRepository;
+    private final PositionRepository positionRepository;
+    private final UserRepository userRepository;
+    private final PriceHistoryStore priceHistoryStore;
+    private final TransactionTemplate transaction;
+
+    public PortfolioSnapshotService(PortfolioSnapshotRepository snapshotRepository,
+                                    TradeRepository tradeRepository,
+                                    PositionRepository positionRepository,
+                                    UserRepository userRepository,
+                                    PriceHistoryStore priceHistoryStore,
+                                    PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.tradeRepository = tradeRepository;
+        this.positionRepository = positionRepository;
+        this.userRepository = userRepository;
+        this.priceHistoryStore = priceHistoryStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Daily snapshots between from and to, inclusive, oldest first. Missing
+     * days since the last snapshot are filled in first.
+     */
+    @Transactional
+    public List<Point> getHistory(Long userId, LocalDate from, LocalDate to) {
+        ensureCurrent(userId);
+        List<Point> points = new ArrayList<>();
+        for (Object[] row : snapshotRepository.findSeries(userId, from, to)) {
+            points.add(new Point((LocalDate) row[0], (BigDecimal) row[1], (BigDecimal) row[2]));
+        }
+        return points;
+    }
+
+    /**
+     * Rewrites the snapshots affected by trade writes dated at or after the
+     * given time. Runs after the writes have been flushed.
+     */
+    @Transactional
+    public void tradesChanged(Long userId, LocalDateTime earliestTradeDate) {
+        LocalDate from = earliestTradeDate.toLocalDate();
+        if (from.isAfter(lastCompletedDay())) {
+            return;
+        }
+        lockSnapshots(userId);
+        if (snapshotRepository.findLastSnapshotDate(userId) != null) {
+            recompute(userId, from);
+        }
+        // Users without snapshots get them on the first history read
+    }
+
+    /**
+     * Rewrites the snapshots of every holder of the given symbols from the
+     * earliest day whose close may have changed.
+     */
+    public void pricesChanged(Map<String, LocalDate> earliestBySymbol) {
+        if (earliestBySymbol.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDate> fromByUser = new HashMap<>();
+        for (Object[] row : positionRepository.findHolders(earliestBySymbol.keySet())) {
+            LocalDate from = earliestBySymbol.get((String) row[1]);
+            fromByUser.merge((Long) row[0], from, (a, b) -> a.isBefore(b) ? a : b);
+        }
+        fromByUser.forEach((userId, from) -> transaction.executeWithoutResult(status -> {
+            lockSnapshots(userId);
+            if (snapshotRepository.findLastSnapshotDate(userId) != null) {
+                recompute(userId, from);
+            }
+        }));
+    }
+
+    /**
+     * Adds the snapshots of days completed since the last run.
+     */
+    @Scheduled(cron = "${app.portfolio-snapshots.cron:0 0 3 * * *}")
+    public void extendAll() {
+        for (Long userId : snapshotRepository.findUserIds()) {
+            transaction.executeWithoutResult(status -> ensureCurrent(userId));
+        }
+    }
+
+    @Transactional
+    public int rebuild(Long userId) {
+        lockSnapshots(userId);
+        snapshotRepository.deleteByUserId(userId);
+        LocalDateTime firstTrade = tradeRepository.findFirstTradeDate(userId);
+        return firstTrade != null ? recompute(userId, firstTrade.toLocalDate()) : 0;
+    }
+
+    private void ensureCurrent(Long userId) {
+        LocalDate last = snapshotRepository.findLastSnapshotDate(userId);
+        if (last != null && !last.isBefore(lastCompletedDay())) {
+            return;
+        }
+        // Checked again under the lock; a concurrent read may have filled the gap
+        lockSnapshots(userId);
+        last = snapshotRepository.findLastSnapshotDate(userId);
+        if (last == null) {
+            rebuild(userId);
+        } else if (last.isBefore(lastCompletedDay())) {
+            recompute(userId, last.plusDays(1));
+        }
+    }
+
+    /**
+     * Serializes snapshot rewrites of a user, which delete and reinsert rows
+     * under the unique (user, day) key. Trade writes of the user take the
+     * same lock.
+     */
+    private void lockSnapshots(Long userId) {
+        userRepository.lockById(userId);
+    }
+
+    // Callers hold the snapshot lock of the user
+    private int recompute(Long userId, LocalDate requestedFrom) {
+        snapshotRepository.deleteFrom(userId, requestedFrom);
+
+        // Nothing was held before the first remaining trade
+        LocalDateTime firstTrade = tradeRepository.findFirstTradeDate(userId);
+        LocalDate through = lastCompletedDay();
+        if (firstTrade == null) {
+            return 0;
+        }
+        LocalDate from = requestedFrom.isBefore(firstTrade.toLocalDate()) ? firstTrade.toLocalDate() : requestedFrom;
+        if (from.isAfter(through)) {
+            return 0;
+        }
+
+        // Holdings and cash flow at the end of the day before from
+        Map<String, BigDecimal> quantities = new HashMap<>();
+        Map<String, BigDecimal> lastTradePrices = new HashMap<>();
+        BigDecimal netInvested = BigDecimal.ZERO;
+        for (Object[] row : tradeRepository.getNetHoldingsBefore(userId, from.atStartOfDay())) {
+            quantities.put((String) row[0], (BigDecimal) row[1]);
+            netInvested = netInvested.add((BigDecimal) row[2]);
+        }
+        for (Object[] row : tradeRepository.getLastTradePricesBefore(userId, from.atStartOfDay())) {
+            lastTradePrices.put((String) row[0], (BigDecimal) row[1]);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, through) + 1;
+        List<Trade> trades = tradeRepository.findForReplay(userId, from.atStartOfDay(), through.plusDays(1).atStartOfDay());
+        Map<String, double[]> closes = new HashMap<>();
+        User user = userRepository.getReferenceById(userId);
+        List<PortfolioSnapshot> snapshots = new ArrayList<>(days);
+
+        int next = 0;
+        for (int day = 0; day < days; day++) {
+            LocalDateTime dayEnd = from.plusDays(day + 1).atStartOfDay();
+            for (; next < trades.size() && trades.get(next).getTradeDate().isBefore(dayEnd); next++) {
+                Trade trade = trades.get(next);
+                boolean buy = trade.getTradeType() == Trade.TradeType.BUY;
+                quantities.merge(trade.getSymbol(), buy ? trade.getQuantity() : trade.getQuantity().negate(), BigDecimal::add);
+                netInvested = buy ? netInvested.add(trade.getTotalAmount()) : netInvested.subtract(trade.getTotalAmount());
+                lastTradePrices.put(trade.getSymbol(), trade.getPricePerUnit());
+            }
+
+            BigDecimal marketValue = BigDecimal.ZERO;
+            for (Map.Entry<String, BigDecimal> holding : quantities.entrySet()) {
+                if (holding.getValue().signum() <= 0) {
+                    continue;
+                }
+                double close = closes.computeIfAbsent(holding.getKey(), symbol -> dailyCloses(symbol, from, days))[day];
+                BigDecimal price = Double.isNaN(close) ? lastTradePrices.get(holding.getKey()) : BigDecimal.valueOf(close);
+                if (price != null) {
+                    marketValue = marketValue.add(holding.getValue().multiply(price));
+                }
+            }
+
+            snapshots.add(new PortfolioSnapshot(user, from.plusDays(day),
+                    marketValue.setScale(2, RoundingMode.HALF_UP), netInvested.setScale(2, RoundingMode.HALF_UP)));
+        }
+
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private double[] dailyCloses(String symbol, LocalDate from, int days) {
+        try {
+            return priceHistoryStore.dailyCloses(symbol, from, days);
+        } catch (IllegalArgumentException e) {
+            // Not a symbol the price store can hold
+            double[] none = new double[days];
+            Arrays.fill(none, Double.NaN);
+            return none;
+        }
+    }
+
+    private static LocalDate lastCompletedDay() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(1);
+    }
+
+    public record Point(LocalDate date, BigDecimal marketValue, BigDecimal netInvested) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.finance.service;
+
+import com.finance.model.Position;
+import com.finance.model.Trade;
+import com.finance.repository.TradeRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profit and loss of trades and positions at current prices.
+ */
+public final class PortfolioValuation {
+
+    private PortfolioValuation() {
+    }
+
+    /**
+     * Sets the current price and unrealized P&amp;L of the trade, or zeroes
+     * them when the price is unknown.
+     */
+    public static void applyCurrentPrice(Trade trade, BigDecimal currentPrice) {
+        if (currentPrice == null || trade.getPricePerUnit() == null) {
+            // Price lookup failed for this symbol
+            trade.setCurrentPrice(BigDecimal.ZERO);
+            trade.setProfitLoss(BigDecimal.ZERO);
+            trade.setProfitLossPercentage(BigDecimal.ZERO);
+            return;
+        }
+
+        trade.setCurrentPrice(currentPrice);
+
+        BigDecimal profitLoss = profitLoss(trade.getPricePerUnit(), trade.getQuantity(), currentPrice);
+        trade.setProfitLoss(profitLoss);
+        trade.setProfitLossPercentage(profitLossPercentage(trade.getPricePerUnit(), trade.getQuantity(), profitLoss));
+    }
+
+    /**
+     * The list item valued the same way as {@link #applyCurrentPrice(Trade, BigDecimal)}.
+     */
+    public static TradeRepository.TradeListItem applyCurrentPrice(TradeRepository.TradeListItem trade, BigDecimal currentPrice) {
+        if (currentPrice == null || trade.pricePerUnit() == null) {
+            return trade.withValuation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+
+        BigDecimal profitLoss = profitLoss(trade.pricePerUnit(), trade.quantity(), currentPrice);
+        return trade.withValuation(currentPrice, profitLoss,
+                profitLossPercentage(trade.pricePerUnit(), trade.quantity(), profitLoss));
+    }
+
+    /**
+     * Totals of the positions, valuing open quantities at the given prices.
+     */
+    public static Map<String, Object> summarize(List<Position> positions, Map<String, BigDecimal> prices) {
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        BigDecimal totalSold = BigDecimal.ZERO;
+        BigDecimal currentValue = BigDecimal.ZERO;
+        BigDecimal unrealizedProfitLoss = BigDecimal.ZERO;
+        BigDecimal realizedProfitLoss = BigDecimal.ZERO;
+        long totalTrades = 0;
+        
+        for (Position position : positions) {
+            totalInvested = totalInvested.add(position.getTotalBought());
+            totalSold = totalSold.add(position.getTotalSold());
+            realizedProfitLoss = realizedProfitLoss.add(position.getRealizedProfitLoss());
+            totalTrades += position.getTradeCount();
+
+            BigDecimal currentPrice = prices.get(position.getSymbol());
+            if (currentPrice != null && position.getQuantity().signum() > 0) {
+                BigDecimal positionValue = currentPrice.multiply(position.getQuantity());
+                currentValue = currentValue.add(positionValue);
+                unrealizedProfitLoss = unrealizedProfitLoss.add(positionValue.subtract(position.getCostBasis()));
+            }
+        }
+        
+        return Map.of(
+            "totalInvested", totalInvested,
+            "totalSold", totalSold,
+            "currentValue", currentValue.setScale(2, RoundingMode.HALF_UP),
+            "realizedProfitLoss", realizedProfitLoss.setScale(2, RoundingMode.HALF_UP),
+            "unrealizedProfitLoss", unrealizedProfitLoss.setScale(2, RoundingMode.HALF_UP),
+            "totalProfitLoss", realizedProfitLoss.add(unrealizedProfitLoss).setScale(2, RoundingMode.HALF_UP),
+            "totalTrades", totalTrades
+        );
+    }
+
+    private static BigDecimal profitLoss(BigDecimal pricePerUnit, BigDecimal quantity, BigDecimal currentPrice) {
+        return currentPrice.subtract(pricePerUnit).multiply(quantity);
+    }
+
+    private static BigDecimal profitLossPercentage(BigDecimal pricePerUnit, BigDecimal quantity, BigDecimal profitLoss) {
+        return profitLoss
+                .divide(pricePerUnit.multiply(quantity), 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
+}
@@ -0,0 +1,265 @@
+package com.finance.service;
+
+import com.finance.model.Position;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.PositionRepository;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps one row per (user, symbol) with net quantity, average-cost basis and
+ * realized P&L, so portfolio reads cost O(positions) instead of O(trades).
+ *
+ * New trades dated after the last applied trade are folded in directly.
+ * Back-dated trades, edits and deletes change the average-cost path, so the
+ * affected symbol is replayed from its own trades only.
+ *
+ * Every write first locks the user row, so concurrent trades of one user
+ * update positions one after the other instead of failing on the version
+ * check or on the (user, symbol) unique key. Quantity sold beyond what is
+ * held is left unmatched, as in {@link LotAccountingEngine}: the position
+ * stays flat rather than going short.
+ */
+@Service
+public class PositionService {
+
+    private static final int SCALE = 8;
+
+    private final PositionRepository positionRepository;
+    private final TradeRepository tradeRepository;
+    private final UserRepository userRepository;
+
+    public PositionService(PositionRepository positionRepository,
+                           TradeRepository tradeRepository,
+                           UserRepository userRepository) {
+        this.positionRepository = positionRepository;
+        this.tradeRepository = tradeRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public List<Position> getPositions(Long userId) {
+        List<Position> positions = positionRepository.findByUserIdOrderBySymbolAsc(userId);
+        if (positions.isEmpty() && tradeRepository.existsByUserId(userId)) {
+            // Trades recorded before positions were tracked
+            lockPositions(userId);
+            rebuild(userId);
+            positions = positionRepository.findByUserIdOrderBySymbolAsc(userId);
+        }
+        return positions;
+    }
+
+    @Transactional
+    public void tradeCreated(Trade trade) {
+        Long userId = trade.getUser().getId();
+        lockPositions(userId);
+        if (!positionRepository.existsByUserId(userId)) {
+            // First write since positions were introduced: pick up any older trades
+            rebuild(userId);
+            return;
+        }
+
+        Position position = positionRepository.findByUserIdAndSymbol(userId, trade.getSymbol()).orElse(null);
+
+        if (position == null || !appliesAfter(trade, position)) {
+            rebuildSymbol(userId, trade.getSymbol());
+            return;
+        }
+
+        apply(position, trade);
+        positionRepository.save(position);
+    }
+
+    @Transactional
+    public void tradeUpdated(Long userId, String previousSymbol, Trade trade) {
+        lockPositions(userId);
+        rebuildSymbol(userId, trade.getSymbol());
+        if (!previousSymbol.equals(trade.getSymbol())) {
+            rebuildSymbol(userId, previousSymbol);
+        }
+    }
+
+    @Transactional
+    public void tradeDeleted(Long userId, String symbol) {
+        lockPositions(userId);
+        rebuildSymbol(userId, symbol);
+    }
+
+    /**
+     * Brings the positions of the given symbols up to date after bulk writes.
+     */
+    @Transactional
+    public void tradesChanged(Long userId, Set<String> symbols) {
+        lockPositions(userId);
+        if (!positionRepository.existsByUserId(userId)) {
+            rebuild(userId);
+            return;
+        }
+        symbols.forEach(symbol -> rebuildSymbol(userId, symbol));
+    }
+
+    /**
+     * Replays every trade of the user and overwrites the stored positions.
+     * Returns the differences between the stored and the replayed state.
+     */
+    @Transactional
+    public List<String> rebuild(Long userId) {
+        lockPositions(userId);
+        Map<String, Position> replayed = replay(tradeRepository.findByUserIdOrderByTradeDateAscIdAsc(userId));
+        List<String> mismatches = new ArrayList<>();
+
+        for (Position stored : positionRepository.findByUserIdOrderBySymbolAsc(userId)) {
+            Position expected = replayed.remove(stored.getSymbol());
+            if (expected == null) {
+                mismatches.add(stored.getSymbol() + ": stored position has no trades");
+                positionRepository.delete(stored);
+                continue;
+            }
+            String difference = describeDifference(stored, expected);
+            if (difference != null) {
+                mismatches.add(stored.getSymbol() + ": " + difference);
+            }
+            copyState(expected, stored);
+            positionRepository.save(stored);
+        }
+
+        if (!replayed.isEmpty()) {
+            User user = userRepository.getReferenceById(userId);
+            for (Position missing : replayed.values()) {
+                mismatches.add(missing.getSymbol() + ": position was missing");
+                missing.setUser(user);
+                positionRepository.save(missing);
+            }
+        }
+
+        return mismatches;
+    }
+
+    private void lockPositions(Long userId) {
+        userRepository.lockById(userId);
+    }
+
+    private void rebuildSymbol(Long userId, String symbol) {
+        List<Trade> trades = tradeRepository.findByUserIdAndSymbolOrderByTradeDateAscIdAsc(userId, symbol);
+        Position stored = positionRepository.findByUserIdAndSymbol(userId, symbol).orElse(null);
+
+        if (trades.isEmpty()) {
+            if (stored != null) {
+                positionRepository.delete(stored);
+            }
+            return;
+        }
+
+        Position expected = replay(trades).get(symbol);
+        if (stored == null) {
+            expected.setUser(userRepository.getReferenceById(userId));
+            positionRepository.save(expected);
+        } else {
+            copyState(expected, stored);
+            positionRepository.save(stored);
+        }
+    }
+
+    private Map<String, Position> replay(List<Trade> tradesInOrder) {
+        Map<String, Position> positions = new LinkedHashMap<>();
+        for (Trade trade : tradesInOrder) {
+            Position position = positions.computeIfAbsent(trade.getSymbol(), symbol -> new Position(null, symbol));
+            apply(position, trade);
+        }
+        return positions;
+    }
+
+    private boolean appliesAfter(Trade trade, Position position) {
+        if (position.getLastTradeDate() == null) {
+            return true;
+        }
+        int byDate = trade.getTradeDate().compareTo(position.getLastTradeDate());
+        return byDate > 0 || (byDate == 0 && trade.getId() > position.getLastTradeId());
+    }
+
+    private void apply(Position position, Trade trade) {
+        BigDecimal quantity = position.getQuantity();
+        BigDecimal costBasis = position.getCostBasis();
+
+        if (trade.getTradeType() == Trade.TradeType.BUY) {
+            quantity = quantity.add(trade.getQuantity());
+            costBasis = costBasis.add(trade.getQuantity().multiply(trade.getPricePerUnit()));
+            position.setTotalBought(position.getTotalBought().add(trade.getTotalAmount()));
+        } else {
+            // Realize P&L against the average cost of what is still held
+            BigDecimal matched = trade.getQuantity().min(quantity);
+            if (matched.signum() > 0) {
+                BigDecimal averageCost = costBasis.divide(quantity, SCALE, RoundingMode.HALF_UP);
+                BigDecimal matchedCost = averageCost.multiply(matched);
+                position.setRealizedProfitLoss(position.getRealizedProfitLoss()
+                        .add(trade.getPricePerUnit().multiply(matched).subtract(matchedCost))
+                        .setScale(SCALE, RoundingMode.HALF_UP));
+                costBasis = costBasis.subtract(matchedCost);
+            }
+            // Anything sold beyond the holding is unmatched and opens no short
+            quantity = quantity.subtract(matched);
+            position.setTotalSold(position.getTotalSold().add(trade.getTotalAmount()));
+        }
+
+        if (quantity.signum() <= 0) {
+            costBasis = BigDecimal.ZERO;
+        }
+
+        position.setQuantity(quantity.setScale(SCALE, RoundingMode.HALF_UP));
+        position.setCostBasis(costBasis.setScale(SCALE, RoundingMode.HALF_UP));
+        position.setAssetType(trade.getAssetType());
+        position.setTradeCount(position.getTradeCount() + 1);
+        position.setLastTradeDate(trade.getTradeDate());
+        position.setLastTradeId(trade.getId());
+    }
+
+    private void copyState(Position from, Position to) {
+        to.setAssetType(from.getAssetType());
+        to.setQuantity(from.getQuantity());
+        to.setCostBasis(from.getCostBasis());
+        to.setRealizedProfitLoss(from.getRealizedProfitLoss());
+        to.setTotalBought(from.getTotalBought());
+        to.setTotalSold(from.getTotalSold());
+        to.setTradeCount(from.getTradeCount());
+        to.setLastTradeDate(from.getLastTradeDate());
+        to.setLastTradeId(from.getLastTradeId());
+    }
+
+    private String describeDifference(Position stored, Position expected) {
+        Map<String, Object[]> fields = new HashMap<>();
+        fields.put("quantity", new Object[]{stored.getQuantity(), expected.getQuantity()});
+        fields.put("costBasis", new Object[]{stored.getCostBasis(), expected.getCostBasis()});
+        fields.put("realizedProfitLoss", new Object[]{stored.getRealizedProfitLoss(), expected.getRealizedProfitLoss()});
+        fields.put("totalBought", new Object[]{stored.getTotalBought(), expected.getTotalBought()});
+        fields.put("totalSold", new Object[]{stored.getTotalSold(), expected.getTotalSold()});
+        fields.put("tradeCount", new Object[]{stored.getTradeCount(), expected.getTradeCount()});
+
+        List<String> differences = new ArrayList<>();
+        fields.forEach((name, values) -> {
+            if (!sameValue(values[0], values[1])) {
+                differences.add(name + " stored=" + values[0] + " expected=" + values[1]);
+            }
+        });
+        return differences.isEmpty() ? null : String.join(", ", differences);
+    }
+
+    private boolean sameValue(Object stored, Object expected) {
+        if (stored instanceof BigDecimal a && expected instanceof BigDecimal b) {
+            return a.compareTo(b) == 0;
+        }
+        return Objects.equals(stored, expected);
+    }
+}
@@ -0,0 +1,96 @@
+package com.finance.service;
+
+import com.finance.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fills the {@link PriceHistoryStore} with daily prices of every traded
+ * symbol. Runs nightly; the live pricing path adds intraday points between
+ * runs.
+ */
+@Component
+public class PriceHistoryBackfill {
+
+    private static final int CONCURRENCY = 4;
+
+    private final TradeRepository tradeRepository;
+    private final MarketDataService marketDataService;
+    private final PriceHistoryStore priceHistoryStore;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final boolean enabled;
+    private final int days;
+
+    public PriceHistoryBackfill(TradeRepository tradeRepository,
+                                MarketDataService marketDataService,
+                                PriceHistoryStore priceHistoryStore,
+                                PortfolioSnapshotService portfolioSnapshotService,
+                                @Value("${app.price-history.backfill.enabled:true}") boolean enabled,
+                                @Value("${app.price-history.backfill.days:365}") int days) {
+        this.tradeRepository = tradeRepository;
+        this.marketDataService = marketDataService;
+        this.priceHistoryStore = priceHistoryStore;
+        this.portfolioSnapshotService = portfolioSnapshotService;
+        this.enabled = enabled;
+        this.days = days;
+    }
+
+    @Scheduled(cron = "${app.price-history.backfill.cron:0 30 2 * * *}")
+    public void backfillAll() {
+        if (enabled) {
+            backfill(tradeRepository.findDistinctSymbols());
+        }
+    }
+
+    public Result backfillUser(Long userId) {
+        return backfill(tradeRepository.findDistinctSymbolsByUserId(userId));
+    }
+
+    private Result backfill(List<Object[]> symbolRows) {
+        // A symbol recorded under several asset types is fetched once
+        Map<String, String> assetTypes = new LinkedHashMap<>();
+        for (Object[] row : symbolRows) {
+            assetTypes.putIfAbsent(((String) row[0]).toUpperCase(Locale.ROOT), (String) row[1]);
+        }
+
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        Map<String, LocalDate> changedFrom = new ConcurrentHashMap<>();
+        Integer added = Flux.fromIterable(assetTypes.entrySet())
+                .flatMap(entry -> marketDataService.getPriceHistory(entry.getKey(), entry.getValue(), days)
+                        .map(series -> {
+                            int stored = priceHistoryStore.addAll(entry.getKey(), series.timestamps(), series.prices());
+                            if (stored > 0) {
+                                changedFrom.put(entry.getKey(), Instant.ofEpochMilli(series.timestamps()[0])
+                                        .atOffset(ZoneOffset.UTC).toLocalDate());
+                            }
+                            return stored;
+                        })
+                        .onErrorResume(e -> {
+                            failed.add(entry.getKey());
+                            return Mono.empty();
+                        }), CONCURRENCY)
+                .reduce(0, Integer::sum)
+                .block();
+
+        portfolioSnapshotService.pricesChanged(changedFrom);
+
+        return new Result(assetTypes.size(), added != null ? added : 0, List.copyOf(failed));
+    }
+
+    public record Result(int symbols, int pointsAdded, List<String> failed) {
+    }
+}
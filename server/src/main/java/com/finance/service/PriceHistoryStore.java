@@ -0,0 +1,484 @@
+package com.finance.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local store of historical prices, one directory per symbol holding
+ * append-only, memory-mapped {@link PriceSegment} files. Reads never touch
+ * the database or an upstream provider: a range query is a binary search and
+ * a copy out of two primitive columns.
+ *
+ * Points are kept in strictly ascending time order. New points are appended
+ * after the newest stored one; a backfill may also add history before the
+ * oldest stored one. Anything that would land in between is dropped.
+ *
+ * Only symbols with stored points are opened. Beyond a configured number of
+ * open symbols the least recently used idle ones are let go, and their
+ * segments are unmapped once collected.
+ */
+@Component
+public class PriceHistoryStore {
+
+    public static final int MAX_RANGE_POINTS = 100_000;
+    public static final int MAX_BUCKETS = 10_000;
+
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9][A-Z0-9._-]{0,31}");
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final int maxOpenSymbols;
+    // Open series in access order, guarded by itself
+    private final Map<String, SymbolSeries> series = new LinkedHashMap<>(16, 0.75f, true);
+
+    public PriceHistoryStore(@Value("${app.price-history.dir:./data/prices}") String directory,
+                             @Value("${app.price-history.segment-capacity:65536}") int segmentCapacity,
+                             @Value("${app.price-history.max-open-symbols:256}") int maxOpenSymbols) {
+        if (segmentCapacity <= 0 || segmentCapacity > PriceSegment.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid price history segment capacity: " + segmentCapacity);
+        }
+        this.directory = Paths.get(directory);
+        this.segmentCapacity = segmentCapacity;
+        this.maxOpenSymbols = Math.max(1, maxOpenSymbols);
+    }
+
+    /**
+     * Appends a point if it is newer than the newest stored point for the
+     * symbol. Returns whether it was stored.
+     */
+    public boolean append(String symbol, long timestamp, double price) {
+        return addAll(symbol, new long[]{timestamp}, new double[]{price}) == 1;
+    }
+
+    /**
+     * Adds the points, given in ascending time order, that fall before the
+     * oldest or after the newest stored point. Returns how many were stored.
+     */
+    public int addAll(String symbol, long[] timestamps, double[] prices) {
+        if (timestamps.length != prices.length) {
+            throw new IllegalArgumentException("Timestamps and prices differ in length");
+        }
+        if (timestamps.length == 0) {
+            return 0;
+        }
+        SymbolSeries symbolSeries = acquire(symbol, true);
+        try {
+            return symbolSeries.addAll(timestamps, prices);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            symbolSeries.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Points with from <= timestamp < to, oldest first. When more than limit
+     * points match, the result is cut off and nextFrom is where to resume.
+     */
+    public Series range(String symbol, long from, long to, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_RANGE_POINTS));
+        SymbolSeries symbolSeries = acquire(symbol, false);
+        if (symbolSeries == null) {
+            return new Series(key(symbol), new long[0], new double[0], null);
+        }
+        try {
+            long[] timestamps = new long[Math.min(max, 1024)];
+            double[] prices = new double[timestamps.length];
+            int size = 0;
+            for (PriceSegment segment : symbolSeries.segments) {
+                if (segment.lastTimestamp() < from) {
+                    continue;
+                }
+                if (segment.firstTimestamp() >= to) {
+                    break;
+                }
+                for (int i = segment.lowerBound(from); i < segment.count(); i++) {
+                    long timestamp = segment.timestamp(i);
+                    if (timestamp >= to) {
+                        break;
+                    }
+                    if (size == max) {
+                        return new Series(symbolSeries.symbol, Arrays.copyOf(timestamps, size),
+                                Arrays.copyOf(prices, size), timestamp);
+                    }
+                    if (size == timestamps.length) {
+                        timestamps = Arrays.copyOf(timestamps, Math.min(max, size * 2));
+                        prices = Arrays.copyOf(prices, timestamps.length);
+                    }
+                    timestamps[size] = timestamp;
+                    prices[size] = segment.price(i);
+                    size++;
+                }
+            }
+            return new Series(symbolSeries.symbol, Arrays.copyOf(timestamps, size), Arrays.copyOf(prices, size), null);
+        } finally {
+            symbolSeries.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * OHLC buckets of the given width over from <= timestamp < to, aligned to
+     * the epoch. Buckets without points are left out.
+     */
+    public List<Bucket> downsample(String symbol, long from, long to, long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (to > from && (to - from) / bucketMillis >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_BUCKETS + " intervals");
+        }
+
+        List<Bucket> buckets = new ArrayList<>();
+        SymbolSeries symbolSeries = acquire(symbol, false);
+        if (symbolSeries == null) {
+            return buckets;
+        }
+        try {
+            long start = 0;
+            double open = 0, high = 0, low = 0, close = 0;
+            int count = 0;
+            for (PriceSegment segment : symbolSeries.segments) {
+                if (segment.lastTimestamp() < from) {
+                    continue;
+                }
+                if (segment.firstTimestamp() >= to) {
+                    break;
+                }
+                for (int i = segment.lowerBound(from); i < segment.count(); i++) {
+                    long timestamp = segment.timestamp(i);
+                    if (timestamp >= to) {
+                        break;
+                    }
+                    double price = segment.price(i);
+                    long bucketStart = Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+                    if (count > 0 && bucketStart != start) {
+                        buckets.add(new Bucket(start, open, high, low, close, count));
+                        count = 0;
+                    }
+                    if (count == 0) {
+                        start = bucketStart;
+                        open = high = low = price;
+                    } else {
+                        high = Math.max(high, price);
+                        low = Math.min(low, price);
+                    }
+                    close = price;
+                    count++;
+                }
+            }
+            if (count > 0) {
+                buckets.add(new Bucket(start, open, high, low, close, count));
+            }
+        } finally {
+            symbolSeries.lock.readLock().unlock();
+        }
+        return buckets;
+    }
+
+    /**
+     * Closing price of each of the given number of UTC days starting at from:
+     * the last stored price before the day ends, carried forward over days
+     * without points. NaN until the first stored point.
+     */
+    public double[] dailyCloses(String symbol, LocalDate from, int days) {
+        double[] closes = new double[days];
+        long start = from.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long dayMillis = Duration.ofDays(1).toMillis();
+
+        SymbolSeries symbolSeries = acquire(symbol, false);
+        if (symbolSeries == null) {
+            Arrays.fill(closes, Double.NaN);
+            return closes;
+        }
+        try {
+            double last = Double.NaN;
+            int day = 0;
+            scan:
+            for (PriceSegment segment : symbolSeries.segments) {
+                if (segment.lastTimestamp() < start) {
+                    last = segment.price(segment.count() - 1);
+                    continue;
+                }
+                int i = segment.lowerBound(start);
+                if (i > 0) {
+                    last = segment.price(i - 1);
+                }
+                for (; i < segment.count(); i++) {
+                    long offset = (segment.timestamp(i) - start) / dayMillis;
+                    if (offset >= days) {
+                        break scan;
+                    }
+                    while (day < offset) {
+                        closes[day++] = last;
+                    }
+                    last = segment.price(i);
+                }
+            }
+            while (day < days) {
+                closes[day++] = last;
+            }
+        } finally {
+            symbolSeries.lock.readLock().unlock();
+        }
+        return closes;
+    }
+
+    /**
+     * Timestamp of the newest stored point, or null if there is none.
+     */
+    public Long lastTimestamp(String symbol) {
+        SymbolSeries symbolSeries = acquire(symbol, false);
+        if (symbolSeries == null) {
+            return null;
+        }
+        try {
+            return symbolSeries.segments.isEmpty() ? null : symbolSeries.last().lastTimestamp();
+        } finally {
+            symbolSeries.lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        List<SymbolSeries> open;
+        synchronized (series) {
+            open = new ArrayList<>(series.values());
+        }
+        for (SymbolSeries symbolSeries : open) {
+            symbolSeries.lock.writeLock().lock();
+            try {
+                symbolSeries.segments.forEach(PriceSegment::force);
+            } finally {
+                symbolSeries.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Number of series currently open.
+     */
+    public int openSymbols() {
+        synchronized (series) {
+            return series.size();
+        }
+    }
+
+    /**
+     * Returns the symbol's series locked for reading or writing, opening it
+     * if needed. For reads, returns null without opening anything when the
+     * symbol has no stored points.
+     */
+    private SymbolSeries acquire(String symbol, boolean write) {
+        String key = key(symbol);
+        while (true) {
+            SymbolSeries symbolSeries = seriesFor(key, write);
+            if (symbolSeries == null) {
+                return null;
+            }
+            Lock lock = write ? symbolSeries.lock.writeLock() : symbolSeries.lock.readLock();
+            lock.lock();
+            if (!symbolSeries.closed) {
+                return symbolSeries;
+            }
+            // Evicted after the lookup; open it again
+            lock.unlock();
+        }
+    }
+
+    private SymbolSeries seriesFor(String key, boolean create) {
+        synchronized (series) {
+            SymbolSeries symbolSeries = series.get(key);
+            if (symbolSeries != null) {
+                return symbolSeries;
+            }
+            Path symbolDirectory = directory.resolve(key);
+            if (!create && !Files.isDirectory(symbolDirectory)) {
+                return null;
+            }
+            try {
+                symbolSeries = new SymbolSeries(key, symbolDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            evictIdle();
+            series.put(key, symbolSeries);
+            return symbolSeries;
+        }
+    }
+
+    /**
+     * Drops the least recently used series until there is room for one more,
+     * skipping any that a reader or writer holds. Caller holds the map lock.
+     */
+    private void evictIdle() {
+        Iterator<SymbolSeries> eldestFirst = series.values().iterator();
+        while (series.size() >= maxOpenSymbols && eldestFirst.hasNext()) {
+            SymbolSeries candidate = eldestFirst.next();
+            if (candidate.lock.writeLock().tryLock()) {
+                try {
+                    candidate.close();
+                } finally {
+                    candidate.lock.writeLock().unlock();
+                }
+                eldestFirst.remove();
+            }
+        }
+    }
+
+    private static String key(String symbol) {
+        String key = symbol == null ? "" : symbol.trim().toUpperCase(Locale.ROOT);
+        if (!SYMBOL.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        }
+        return key;
+    }
+
+    private final class SymbolSeries {
+
+        final String symbol;
+        final Path directory;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Non-empty segments, oldest first
+        final List<PriceSegment> segments = new ArrayList<>();
+        // Set once evicted; holders of a stale reference look the symbol up again
+        boolean closed;
+
+        SymbolSeries(String symbol, Path directory) throws IOException {
+            this.symbol = symbol;
+            this.directory = directory;
+            if (!Files.isDirectory(directory)) {
+                return;
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                    PriceSegment segment = PriceSegment.open(file);
+                    if (segment.count() == 0) {
+                        // Created but never written to before a shutdown
+                        Files.delete(file);
+                    } else {
+                        segments.add(segment);
+                    }
+                }
+            }
+            segments.sort(Comparator.comparingLong(PriceSegment::firstTimestamp));
+        }
+
+        // Caller holds the write lock; dirty pages still reach the file through the page cache
+        void close() {
+            segments.clear();
+            closed = true;
+        }
+
+        PriceSegment last() {
+            return segments.get(segments.size() - 1);
+        }
+
+        int addAll(long[] timestamps, double[] prices) throws IOException {
+            if (timestamps.length == 0) {
+                return 0;
+            }
+            if (segments.isEmpty()) {
+                return appendAfter(Long.MIN_VALUE, 0, timestamps, prices);
+            }
+
+            long oldest = segments.get(0).firstTimestamp();
+            int before = 0;
+            while (before < timestamps.length && timestamps[before] < oldest) {
+                before++;
+            }
+            int added = prependBefore(before, timestamps, prices);
+            return added + appendAfter(last().lastTimestamp(), before, timestamps, prices);
+        }
+
+        private int appendAfter(long newest, int from, long[] timestamps, double[] prices) throws IOException {
+            int added = 0;
+            for (int i = from; i < timestamps.length; i++) {
+                if (timestamps[i] <= newest) {
+                    continue;
+                }
+                if (segments.isEmpty() || last().isFull()) {
+                    segments.add(PriceSegment.create(segmentPath(timestamps[i]), segmentCapacity));
+                }
+                last().append(timestamps[i], prices[i]);
+                newest = timestamps[i];
+                added++;
+            }
+            return added;
+        }
+
+        private int prependBefore(int end, long[] timestamps, double[] prices) throws IOException {
+            // Older history goes into new, exactly sized segments at the head
+            int[] kept = new int[end];
+            int size = 0;
+            long previous = Long.MIN_VALUE;
+            for (int i = 0; i < end; i++) {
+                if (timestamps[i] > previous) {
+                    kept[size++] = i;
+                    previous = timestamps[i];
+                }
+            }
+
+            List<PriceSegment> head = new ArrayList<>();
+            for (int offset = 0; offset < size; offset += segmentCapacity) {
+                int length = Math.min(segmentCapacity, size - offset);
+                PriceSegment segment = PriceSegment.create(segmentPath(timestamps[kept[offset]]), length);
+                for (int j = offset; j < offset + length; j++) {
+                    segment.append(timestamps[kept[j]], prices[kept[j]]);
+                }
+                head.add(segment);
+            }
+            segments.addAll(0, head);
+            return size;
+        }
+
+        private Path segmentPath(long firstTimestamp) throws IOException {
+            Files.createDirectories(directory);
+            return directory.resolve(firstTimestamp + SEGMENT_SUFFIX);
+        }
+    }
+
+    /**
+     * Columnar slice of a symbol's history.
+     */
+    public record Series(String symbol, long[] timestamps, double[] prices, Long nextFrom) {
+
+        public static Series of(String symbol, SortedMap<Long, Double> points) {
+            long[] timestamps = new long[points.size()];
+            double[] prices = new double[points.size()];
+            int i = 0;
+            for (Map.Entry<Long, Double> point : points.entrySet()) {
+                timestamps[i] = point.getKey();
+                prices[i] = point.getValue();
+                i++;
+            }
+            return new Series(symbol.toUpperCase(Locale.ROOT), timestamps, prices, null);
+        }
+    }
+
+    public record Bucket(long start, double open, double high, double low, double close, int count) {
+    }
+}
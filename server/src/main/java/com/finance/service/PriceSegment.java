@@ -0,0 +1,135 @@
+package com.finance.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped, append-only segment of a symbol's price history. The file
+ * holds a small header followed by two fixed-size columns: epoch-millisecond
+ * timestamps (long) and prices (double), both in ascending time order.
+ *
+ * <pre>
+ * 0   int  magic "PXS1"
+ * 4   int  capacity
+ * 8   int  count (written after the row, so readers never see a torn row)
+ * 64  long timestamps[capacity]
+ * ..  double prices[capacity]
+ * </pre>
+ *
+ * Not thread-safe; {@link PriceHistoryStore} guards each symbol with a lock.
+ */
+final class PriceSegment {
+
+    private static final int MAGIC = 0x50585331;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int HEADER_BYTES = 64;
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / 16;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int pricesOffset;
+    private int count;
+
+    private PriceSegment(Path path, MappedByteBuffer buffer, int capacity, int count) {
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.pricesOffset = HEADER_BYTES + capacity * 8;
+        this.count = count;
+    }
+
+    static PriceSegment create(Path path, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid segment capacity: " + capacity);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + capacity * 16L);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putInt(COUNT_OFFSET, 0);
+            return new PriceSegment(path, buffer, capacity, 0);
+        }
+    }
+
+    static PriceSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a price segment: " + path);
+            }
+            int capacity = buffer.getInt(CAPACITY_OFFSET);
+            int count = buffer.getInt(COUNT_OFFSET);
+            if (capacity <= 0 || capacity > MAX_CAPACITY || channel.size() < HEADER_BYTES + capacity * 16L
+                    || count < 0 || count > capacity) {
+                throw new IOException("Corrupt price segment header: " + path);
+            }
+            return new PriceSegment(path, buffer, capacity, count);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long timestamp(int index) {
+        return buffer.getLong(HEADER_BYTES + index * 8);
+    }
+
+    double price(int index) {
+        return buffer.getDouble(pricesOffset + index * 8);
+    }
+
+    long firstTimestamp() {
+        return timestamp(0);
+    }
+
+    long lastTimestamp() {
+        return timestamp(count - 1);
+    }
+
+    void append(long timestamp, double price) {
+        buffer.putLong(HEADER_BYTES + count * 8, timestamp);
+        buffer.putDouble(pricesOffset + count * 8, price);
+        count++;
+        buffer.putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Index of the first row with a timestamp at or after the given one, or
+     * count if there is none.
+     */
+    int lowerBound(long timestamp) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void force() {
+        buffer.force();
+    }
+}
@@ -0,0 +1,132 @@
+package com.finance.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes price changes to subscribers. Each distinct symbol has at most one
+ * poller, shared by every subscriber of that symbol and stopped a grace
+ * period after the last one leaves, so upstream load follows the number of
+ * symbols watched rather than the number of clients.
+ *
+ * A subscriber that cannot keep up only ever receives the latest price of a
+ * symbol; intermediate updates are dropped rather than buffered.
+ */
+@Service
+public class PriceStreamService implements MeterBinder {
+
+    public static final int MAX_SYMBOLS = 50;
+
+    private final MarketDataService marketDataService;
+    private final Duration pollInterval;
+    private final Duration idleGrace;
+
+    private final Map<FeedKey, Flux<PriceUpdate>> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger activePollers = new AtomicInteger();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public PriceStreamService(MarketDataService marketDataService,
+                              @Value("${app.price-stream.poll-interval-ms:5000}") long pollIntervalMs,
+                              @Value("${app.price-stream.idle-grace-ms:30000}") long idleGraceMs) {
+        this.marketDataService = marketDataService;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.idleGrace = Duration.ofMillis(idleGraceMs);
+    }
+
+    /**
+     * Latest price of each symbol on subscription, then every change. The
+     * asset type is not known, so any provider may answer.
+     */
+    public Flux<PriceUpdate> subscribe(Collection<String> symbols) {
+        Map<String, String> assetTypesBySymbol = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            assetTypesBySymbol.put(symbol, null);
+        }
+        return subscribe(assetTypesBySymbol);
+    }
+
+    /**
+     * Same as {@link #subscribe(Collection)} with the asset type of each
+     * symbol, which may be null when it is not known.
+     */
+    public Flux<PriceUpdate> subscribe(Map<String, String> assetTypesBySymbol) {
+        Set<FeedKey> keys = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : assetTypesBySymbol.entrySet()) {
+            String symbol = entry.getKey();
+            if (symbol != null && !symbol.isBlank()) {
+                String assetType = entry.getValue();
+                keys.add(new FeedKey(symbol.trim().toUpperCase(Locale.ROOT),
+                        assetType == null || assetType.isBlank() ? null : assetType.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        if (keys.isEmpty() || keys.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException("Subscribe to between 1 and " + MAX_SYMBOLS + " symbols");
+        }
+
+        return Flux.fromIterable(keys)
+                .flatMap(key -> feed(key).onBackpressureLatest(), keys.size())
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public Map<String, Integer> getStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        stats.put("activePollers", activePollers.get());
+        stats.put("feeds", feeds.size());
+        stats.put("subscribers", subscribers.get());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("market.stream.pollers", activePollers, AtomicInteger::get).register(registry);
+        Gauge.builder("market.stream.subscribers", subscribers, AtomicInteger::get).register(registry);
+    }
+
+    private Flux<PriceUpdate> feed(FeedKey key) {
+        return feeds.computeIfAbsent(key, this::newFeed);
+    }
+
+    private Flux<PriceUpdate> newFeed(FeedKey key) {
+        AtomicReference<Flux<PriceUpdate>> self = new AtomicReference<>();
+        Flux<PriceUpdate> feed = Flux.interval(Duration.ZERO, pollInterval)
+                // Skip ticks while a lookup is still running instead of queueing them
+                .onBackpressureDrop()
+                .flatMap(tick -> marketDataService.getCurrentPriceReactive(key.symbol(), key.assetType()), 1)
+                .distinctUntilChanged(price -> price, (a, b) -> a.compareTo(b) == 0)
+                .map(price -> new PriceUpdate(key.symbol(), price, System.currentTimeMillis()))
+                .doOnSubscribe(subscription -> activePollers.incrementAndGet())
+                .doFinally(signal -> {
+                    activePollers.decrementAndGet();
+                    // The grace period is over; the next subscriber starts a new feed
+                    feeds.remove(key, self.get());
+                })
+                // New subscribers get the last price at once; the poller outlives brief reconnects
+                .replay(1)
+                .refCount(1, idleGrace);
+        self.set(feed);
+        return feed;
+    }
+
+    private record FeedKey(String symbol, String assetType) {
+    }
+
+    public record PriceUpdate(String symbol, BigDecimal price, long timestamp) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.finance.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of upstream quotes.
+ *
+ * Entries are keyed by symbol and requested asset type, so a lookup without a
+ * type, which any provider may answer, never serves a typed one. Entries
+ * expire after a TTL that depends on the asset type the quote was resolved
+ * as. Expired entries are still served for a grace period while a single
+ * background refresh runs, and concurrent misses for the same key share one
+ * upstream call.
+ */
+@Component
+public class QuoteCache implements MeterBinder {
+
+    public static final String STOCK = "STOCK";
+    public static final String CRYPTO = "CRYPTO";
+
+    private final int maxSize;
+    private final long stockTtlMillis;
+    private final long cryptoTtlMillis;
+    private final long maxStaleMillis;
+
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Quote>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public QuoteCache(@Value("${api.quote-cache.max-size:1000}") int maxSize,
+                      @Value("${api.quote-cache.stock-ttl-seconds:60}") long stockTtlSeconds,
+                      @Value("${api.quote-cache.crypto-ttl-seconds:15}") long cryptoTtlSeconds,
+                      @Value("${api.quote-cache.max-stale-seconds:300}") long maxStaleSeconds) {
+        this.maxSize = maxSize;
+        this.stockTtlMillis = stockTtlSeconds * 1000;
+        this.cryptoTtlMillis = cryptoTtlSeconds * 1000;
+        this.maxStaleMillis = maxStaleSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > QuoteCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached price for the symbol and asset type, which may be
+     * null, loading it with the given loader on a miss. The loader receives
+     * the upper-cased symbol. The future fails if there is neither a usable
+     * cached quote nor a successful upstream load.
+     */
+    public CompletableFuture<BigDecimal> get(String symbol, String assetType,
+                                             Function<String, CompletableFuture<Quote>> loader) {
+        String upperSymbol = symbol.toUpperCase(Locale.ROOT);
+        String key = assetType == null || assetType.isBlank()
+                ? upperSymbol
+                : upperSymbol + "/" + assetType.trim().toUpperCase(Locale.ROOT);
+        Supplier<CompletableFuture<Quote>> upstreamLoad = () -> loader.apply(upperSymbol);
+        long now = System.currentTimeMillis();
+        Entry entry = lookup(key);
+
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < ttlFor(entry.quote.assetType())) {
+                hits.increment();
+                return CompletableFuture.completedFuture(entry.quote.price());
+            }
+            if (age < ttlFor(entry.quote.assetType()) + maxStaleMillis) {
+                // Serve stale and revalidate in the background; a failed refresh
+                // keeps the stale quote until it ages out
+                staleHits.increment();
+                if (!inFlight.containsKey(key)) {
+                    load(key, upstreamLoad);
+                }
+                return CompletableFuture.completedFuture(entry.quote.price());
+            }
+        }
+
+        misses.increment();
+        return load(key, upstreamLoad).handle((quote, error) -> {
+            if (error == null) {
+                return quote.price();
+            }
+            if (entry != null) {
+                // Upstream is down: an old quote beats a made-up one
+                return entry.quote.price();
+            }
+            throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+        });
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) size());
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("market.quote.cache.size", this, QuoteCache::size).register(registry);
+        FunctionCounter.builder("market.quote.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("market.quote.cache.requests", staleHits, LongAdder::sum)
+                .tag("result", "stale").register(registry);
+        FunctionCounter.builder("market.quote.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("market.quote.cache.load.failures", loadFailures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("market.quote.cache.evictions", evictions, LongAdder::sum).register(registry);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private CompletableFuture<Quote> load(String key, Supplier<CompletableFuture<Quote>> loader) {
+        CompletableFuture<Quote> pending = new CompletableFuture<>();
+        CompletableFuture<Quote> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            // Another caller is already fetching this key
+            return existing;
+        }
+
+        CompletableFuture<Quote> upstream;
+        try {
+            upstream = loader.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        upstream.whenComplete((quote, error) -> {
+            if (error == null) {
+                synchronized (entries) {
+                    entries.put(key, new Entry(quote, System.currentTimeMillis()));
+                }
+            } else {
+                loadFailures.increment();
+            }
+            inFlight.remove(key, pending);
+            if (error == null) {
+                pending.complete(quote);
+            } else {
+                pending.completeExceptionally(error);
+            }
+        });
+        return pending;
+    }
+
+    private long ttlFor(String assetType) {
+        return CRYPTO.equals(assetType) ? cryptoTtlMillis : stockTtlMillis;
+    }
+
+    public record Quote(BigDecimal price, String assetType) {
+    }
+
+    private record Entry(Quote quote, long loadedAt) {
+    }
+}
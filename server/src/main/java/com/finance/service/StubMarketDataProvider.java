@@ -0,0 +1,133 @@
+package com.finance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Local provider with synthetic prices, for running without network access
+ * and for load tests. Prices drift slowly around a per-symbol base and are a
+ * pure function of symbol and time. Latency and failures are drawn from a
+ * seeded sequence, so a run with the same settings and call order behaves
+ * the same way.
+ *
+ * Enabled by default with the lowest priority, where it stands in when every
+ * real provider has failed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "api.stub", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StubMarketDataProvider implements MarketDataProvider {
+
+    private static final Map<String, Double> BASE_PRICES = Map.of(
+            "AAPL", 150.00,
+            "GOOGL", 2800.00,
+            "MSFT", 300.00,
+            "TSLA", 250.00,
+            "AMZN", 3300.00,
+            "BTC", 45000.00,
+            "ETH", 3000.00,
+            "ADA", 1.50,
+            "DOT", 25.00);
+
+    private static final long DRIFT_PERIOD_MILLIS = Duration.ofHours(6).toMillis();
+
+    private final int priority;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final double volatility;
+    private final long seed;
+    private final AtomicLong calls = new AtomicLong();
+
+    public StubMarketDataProvider(@Value("${api.stub.priority:1000}") int priority,
+                                  @Value("${api.stub.latency-ms:0}") long latencyMs,
+                                  @Value("${api.stub.latency-jitter-ms:0}") long latencyJitterMs,
+                                  @Value("${api.stub.error-rate:0}") double errorRate,
+                                  @Value("${api.stub.volatility:0.02}") double volatility,
+                                  @Value("${api.stub.seed:42}") long seed) {
+        this.priority = priority;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+        this.volatility = volatility;
+        this.seed = seed;
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean supports(String assetType) {
+        return true;
+    }
+
+    @Override
+    public boolean isSynthetic() {
+        return true;
+    }
+
+    @Override
+    public Mono<QuoteCache.Quote> getQuote(String symbol, String assetType) {
+        return simulateCall(() -> new QuoteCache.Quote(
+                BigDecimal.valueOf(priceAt(symbol, System.currentTimeMillis())).setScale(2, RoundingMode.HALF_UP),
+                QuoteCache.CRYPTO.equalsIgnoreCase(assetType) ? QuoteCache.CRYPTO : QuoteCache.STOCK));
+    }
+
+    @Override
+    public Mono<PriceHistoryStore.Series> getHistory(String symbol, String assetType, int days) {
+        return simulateCall(() -> {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            long[] timestamps = new long[days];
+            double[] prices = new double[days];
+            for (int i = 0; i < days; i++) {
+                timestamps[i] = today.minusDays(days - i).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+                prices[i] = priceAt(symbol, timestamps[i]);
+            }
+            return new PriceHistoryStore.Series(symbol.toUpperCase(), timestamps, prices, null);
+        });
+    }
+
+    private double priceAt(String symbol, long timestamp) {
+        String key = symbol.toUpperCase();
+        double base = BASE_PRICES.getOrDefault(key, 10.0 + Math.floorMod(key.hashCode(), 500));
+        double phase = Math.floorMod(key.hashCode() * 31L, 1000) / 1000.0 * 2 * Math.PI;
+        double drift = Math.sin(2 * Math.PI * timestamp / DRIFT_PERIOD_MILLIS + phase);
+        // Second-level noise, identical for every call within the same second
+        double noise = new SplittableRandom(seed ^ key.hashCode() ^ (timestamp / 1000)).nextDouble(-0.5, 0.5);
+        return Math.round(base * (1 + volatility * (drift + noise)) * 100) / 100.0;
+    }
+
+    private <T> Mono<T> simulateCall(Supplier<T> result) {
+        return Mono.defer(() -> {
+            SplittableRandom random = new SplittableRandom(seed + calls.getAndIncrement());
+            long latency = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+            boolean fail = random.nextDouble() < errorRate;
+
+            Mono<T> call = Mono.fromSupplier(() -> {
+                if (fail) {
+                    throw new IllegalStateException("Simulated upstream failure");
+                }
+                return result.get();
+            });
+            return latency > 0 ? Mono.delay(Duration.ofMillis(latency)).then(call) : call;
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package com.finance.service;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams query results to CSV or XLSX. Rows come from {@link EntityStreamer}
+ * and are written as they arrive; XLSX output keeps only a small window of
+ * rows in memory and spills the rest to a compressed temp file. Exports longer
+ * than an XLSX sheet allows continue on further sheets, each with the header.
+ */
+@Component
+public class TabularExporter {
+
+    private static final int XLSX_ROW_WINDOW = 100;
+    private static final int XLSX_MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int CSV_FLUSH_EVERY_ROWS = 1000;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            return Format.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public record Column<T>(String header, Function<T, Object> value) {
+    }
+
+    private final EntityStreamer entityStreamer;
+
+    public TabularExporter(EntityStreamer entityStreamer) {
+        this.entityStreamer = entityStreamer;
+    }
+
+    public <T> StreamingResponseBody export(Format format, String sheetName,
+                                            Supplier<Stream<T>> query, List<Column<T>> columns) {
+        return format == Format.XLSX
+                ? out -> writeXlsx(out, sheetName, query, columns)
+                : out -> writeCsv(out, query, columns);
+    }
+
+    private <T> void writeCsv(OutputStream out, Supplier<Stream<T>> query, List<Column<T>> columns)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, columns.stream().map(Column::header).toList());
+
+        int[] written = {0};
+        try {
+            entityStreamer.forEach(query, row -> {
+                writeCsvLine(writer, columns.stream().map(column -> column.value().apply(row)).toList());
+                if (++written[0] % CSV_FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            // Keep spreadsheet apps from evaluating user text as a formula
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private <T> void writeXlsx(OutputStream out, String sheetName, Supplier<Stream<T>> query, List<Column<T>> columns)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            SXSSFSheet[] sheet = {createSheet(workbook, sheetName, columns, headerStyle)};
+            int[] sheetCount = {1};
+            int[] rowIndex = {1};
+            entityStreamer.forEach(query, entity -> {
+                if (rowIndex[0] == XLSX_MAX_ROWS) {
+                    sheet[0] = createSheet(workbook, sheetName + " " + ++sheetCount[0], columns, headerStyle);
+                    rowIndex[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowIndex[0]++);
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = columns.get(i).value().apply(entity);
+                    if (value == null) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(i);
+                    if (value instanceof BigDecimal decimal) {
+                        cell.setCellValue(decimal.doubleValue());
+                    } else if (value instanceof Number number) {
+                        cell.setCellValue(number.doubleValue());
+                    } else if (value instanceof LocalDateTime dateTime) {
+                        cell.setCellValue(dateTime);
+                        cell.setCellStyle(dateStyle);
+                    } else {
+                        cell.setCellValue(value.toString());
+                    }
+                }
+            });
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private <T> SXSSFSheet createSheet(SXSSFWorkbook workbook, String name, List<Column<T>> columns,
+                                       CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(columns.get(i).header());
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+}
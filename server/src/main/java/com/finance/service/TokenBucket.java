@@ -0,0 +1,53 @@
+package com.finance.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps calls to an upstream within its quota: up to capacity calls at once,
+ * refilled at permits per period. Callers that find the bucket empty are
+ * turned away rather than queued.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    private final LongAdder rejections = new LongAdder();
+
+    public TokenBucket(int capacity, int permits, long periodMillis) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = (double) permits / (periodMillis * 1_000_000L);
+        this.tokens = this.capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public boolean tryAcquire() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+        }
+        rejections.increment();
+        return false;
+    }
+
+    public synchronized double getAvailable() {
+        return Math.min(capacity, tokens + (System.nanoTime() - lastRefill) * tokensPerNano);
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public static class RateLimitedException extends RuntimeException {
+        public RateLimitedException(String name) {
+            super("Rate limit for " + name + " reached");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+-- Schema as generated by Hibernate before versioned migrations were introduced
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) UNIQUE,
+    email VARCHAR(255) UNIQUE,
+    password VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE expenses (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    description VARCHAR(255),
+    amount NUMERIC(19, 2),
+    category VARCHAR(255),
+    notes VARCHAR(255),
+    expense_date TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE trades (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    symbol VARCHAR(255),
+    asset_type VARCHAR(255),
+    trade_type VARCHAR(255) CHECK (trade_type IN ('BUY', 'SELL')),
+    quantity NUMERIC(19, 8),
+    price_per_unit NUMERIC(19, 2),
+    total_amount NUMERIC(19, 2),
+    fees NUMERIC(19, 2),
+    notes VARCHAR(255),
+    trade_date TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trades_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE investment_goals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    target_amount NUMERIC(19, 2),
+    current_amount NUMERIC(19, 2),
+    target_date TIMESTAMP(6),
+    status VARCHAR(255) CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED')),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_investment_goals_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE positions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    symbol VARCHAR(255) NOT NULL,
+    asset_type VARCHAR(255),
+    quantity NUMERIC(19, 8),
+    cost_basis NUMERIC(27, 8),
+    realized_profit_loss NUMERIC(27, 8),
+    total_bought NUMERIC(19, 2),
+    total_sold NUMERIC(19, 2),
+    trade_count BIGINT,
+    last_trade_date TIMESTAMP(6),
+    last_trade_id BIGINT,
+    updated_at TIMESTAMP(6),
+    version BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_positions_user_symbol UNIQUE (user_id, symbol),
+    CONSTRAINT fk_positions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,20 @@
+-- Every list and aggregate query filters on user_id first, then on the date
+-- or the category/symbol, so each index leads with user_id.
+
+-- Expense listing, keyset pages, streaming and date-range totals (covers amount)
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date, id, amount);
+
+-- Expense category listing and per-category totals (covers amount)
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category, expense_date, amount);
+
+-- Trade listing, keyset pages, streaming and date-range queries
+CREATE INDEX idx_trades_user_date ON trades (user_id, trade_date, id);
+
+-- Per-symbol position replay and symbol listing
+CREATE INDEX idx_trades_user_symbol_date ON trades (user_id, symbol, trade_date, id);
+
+CREATE INDEX idx_trades_user_asset_type_date ON trades (user_id, asset_type, trade_date);
+
+CREATE INDEX idx_goals_user_created ON investment_goals (user_id, created_at);
+
+CREATE INDEX idx_goals_user_status ON investment_goals (user_id, status);
@@ -0,0 +1,13 @@
+-- Per (user, month, category) expense totals maintained on every expense write
+
+CREATE TABLE expense_monthly_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    total_amount NUMERIC(19, 2),
+    expense_count BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_expense_rollups_user_month_category UNIQUE (user_id, month_start, category),
+    CONSTRAINT fk_expense_rollups_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
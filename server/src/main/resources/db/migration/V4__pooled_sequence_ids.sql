@@ -0,0 +1,9 @@
+-- Expenses and trades take ids from pooled sequences so Hibernate can batch
+-- inserts. Hibernate hands out ids (next value - 49 .. next value), so the
+-- sequences restart one allocation block past the current maximum id.
+
+CREATE SEQUENCE expenses_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE expenses_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM expenses);
+
+CREATE SEQUENCE trades_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE trades_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM trades);
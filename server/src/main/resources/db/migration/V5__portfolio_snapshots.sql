@@ -0,0 +1,15 @@
+-- Per (user, day) portfolio value at the day's closing prices, rewritten from
+-- the earliest affected day whenever trades or stored prices change
+
+CREATE SEQUENCE portfolio_snapshots_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE portfolio_snapshots (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    market_value NUMERIC(19, 2) NOT NULL,
+    net_invested NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_portfolio_snapshots_user_date UNIQUE (user_id, snapshot_date),
+    CONSTRAINT fk_portfolio_snapshots_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
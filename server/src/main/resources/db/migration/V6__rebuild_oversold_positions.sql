@@ -0,0 +1,6 @@
+-- Positions used to go negative when more was sold than held, which skewed
+-- the average cost of later buys. Dropping every position of the affected
+-- users makes the next portfolio read or trade write replay them.
+
+DELETE FROM positions
+WHERE user_id IN (SELECT user_id FROM positions WHERE quantity < 0);
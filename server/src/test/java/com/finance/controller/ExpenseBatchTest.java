@@ -0,0 +1,89 @@
+package com.finance.controller;
+
+import com.finance.model.Expense;
+import com.finance.model.User;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.UserRepository;
+import com.finance.security.UserPrincipal;
+import com.finance.service.ExpenseRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"memory", "test"})
+class ExpenseBatchTest {
+
+    @Autowired
+    private ExpenseController expenseController;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Test
+    void itemsOverTheColumnLimitsFailAloneInsteadOfFailingTheBatch() {
+        User user = userRepository.save(new User("batcher", "batcher@example.com", "unused"));
+        UserPrincipal principal = UserPrincipal.create(user);
+        Expense existing = new Expense();
+        existing.setUser(user);
+        existing.setDescription("existing");
+        existing.setAmount(BigDecimal.ONE);
+        existing.setCategory("FOOD");
+        existing.setExpenseDate(LocalDateTime.of(2024, 1, 1, 0, 0));
+        existing = expenseRepository.save(existing);
+        expenseRollupService.expenseAdded(user.getId(), existing);
+
+        String tooLong = "x".repeat(256);
+        List<ExpenseController.ExpenseBatchOperation> operations = List.of(
+                operation(BatchOperation.Op.CREATE, null, request("lunch", "12.50", null)),
+                operation(BatchOperation.Op.CREATE, null, request(tooLong, "1", null)),
+                operation(BatchOperation.Op.CREATE, null, request("yacht", "100000000000000000", null)),
+                operation(BatchOperation.Op.UPDATE, existing.getId(), request("existing", "1", tooLong)),
+                operation(BatchOperation.Op.DELETE, existing.getId(), null));
+
+        ResponseEntity<?> response = expenseController.batchExpenses(operations, principal);
+
+        BatchOperation.Summary summary = (BatchOperation.Summary) response.getBody();
+        assertThat(summary.results()).extracting(BatchOperation.Result::status)
+                .containsExactly("created", "invalid", "invalid", "invalid", "deleted");
+        assertThat(summary.results().get(1).error()).startsWith("description");
+        assertThat(summary.results().get(2).error()).startsWith("amount");
+        assertThat(summary.results().get(3).error()).startsWith("notes");
+        assertThat(expenseRepository.findByIdAndUserId(summary.results().get(0).id(), user.getId())).isPresent();
+        assertThat(expenseRepository.findByIdAndUserId(existing.getId(), user.getId())).isEmpty();
+        assertThat(expenseRollupService.rebuild(user.getId())).isEmpty();
+    }
+
+    private static ExpenseController.ExpenseBatchOperation operation(BatchOperation.Op op, Long id,
+                                                                     ExpenseController.ExpenseRequest data) {
+        ExpenseController.ExpenseBatchOperation operation = new ExpenseController.ExpenseBatchOperation();
+        operation.setOp(op);
+        operation.setId(id);
+        operation.setData(data);
+        return operation;
+    }
+
+    private static ExpenseController.ExpenseRequest request(String description, String amount, String notes) {
+        ExpenseController.ExpenseRequest request = new ExpenseController.ExpenseRequest();
+        request.setDescription(description);
+        request.setAmount(new BigDecimal(amount));
+        request.setCategory("FOOD");
+        request.setNotes(notes);
+        request.setExpenseDate(LocalDateTime.of(2024, 2, 1, 0, 0));
+        return request;
+    }
+}
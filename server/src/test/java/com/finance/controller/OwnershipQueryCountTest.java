@@ -0,0 +1,155 @@
+package com.finance.controller;
+
+import com.finance.model.InvestmentGoal;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.InvestmentGoalRepository;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import com.finance.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles({"memory", "test"})
+class OwnershipQueryCountTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private ExpenseController expenseController;
+
+    @Autowired
+    private TradeController tradeController;
+
+    @Autowired
+    private InvestmentGoalController goalController;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private InvestmentGoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserPrincipal owner;
+    private UserPrincipal intruder;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = UserPrincipal.create(newUser());
+        intruder = UserPrincipal.create(newUser());
+    }
+
+    @Test
+    void foreignExpenseIdsCostOneSelectPerRequest() {
+        Long id = expenseController.createExpense(expenseRequest(), owner).getBody().getId();
+
+        assertNotFoundInOneStatement(() -> expenseController.getExpenseById(id, intruder));
+        assertNotFoundInOneStatement(() -> expenseController.updateExpense(id, expenseRequest(), intruder));
+        assertNotFoundInOneStatement(() -> expenseController.deleteExpense(id, intruder));
+        assertThat(expenseRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void foreignTradeIdsCostOneSelectPerRequest() {
+        Long id = tradeController.createTrade(tradeRequest(), owner).getBody().getId();
+
+        assertNotFoundInOneStatement(() -> tradeController.getTradeById(id, intruder));
+        assertNotFoundInOneStatement(() -> tradeController.updateTrade(id, tradeRequest(), intruder));
+        assertNotFoundInOneStatement(() -> tradeController.deleteTrade(id, intruder));
+        assertThat(tradeRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void foreignGoalIdsCostOneStatementPerRequest() {
+        Long id = goalController.createGoal(goalRequest(), owner).getBody().getId();
+
+        assertNotFoundInOneStatement(() -> goalController.getGoalById(id, intruder));
+        assertNotFoundInOneStatement(() -> goalController.updateGoal(id, goalRequest(), intruder));
+        assertNotFoundInOneStatement(() -> goalController.deleteGoal(id, intruder));
+        assertThat(goalRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void ownReadsAndGoalDeletesNeverLoadTheUser() {
+        Long expenseId = expenseController.createExpense(expenseRequest(), owner).getBody().getId();
+        Long goalId = goalController.createGoal(goalRequest(), owner).getBody().getId();
+        statistics.clear();
+
+        assertThat(expenseController.getExpenseById(expenseId, owner).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(goalController.deleteGoal(goalId, owner).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(goalRepository.findById(goalId)).isEmpty();
+    }
+
+    private void assertNotFoundInOneStatement(Supplier<ResponseEntity<?>> call) {
+        statistics.clear();
+
+        assertThat(call.get().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+    }
+
+    private User newUser() {
+        int n = USERS.incrementAndGet();
+        return userRepository.save(new User("owner" + n, "owner" + n + "@example.com", "unused"));
+    }
+
+    private static ExpenseController.ExpenseRequest expenseRequest() {
+        ExpenseController.ExpenseRequest request = new ExpenseController.ExpenseRequest();
+        request.setDescription("lunch");
+        request.setAmount(new BigDecimal("12.50"));
+        request.setCategory("FOOD");
+        request.setExpenseDate(LocalDateTime.of(2024, 2, 1, 12, 0));
+        return request;
+    }
+
+    private static TradeController.TradeRequest tradeRequest() {
+        TradeController.TradeRequest request = new TradeController.TradeRequest();
+        request.setSymbol("AAPL");
+        request.setAssetType("STOCK");
+        request.setTradeType(Trade.TradeType.BUY);
+        request.setQuantity(new BigDecimal("2"));
+        request.setPricePerUnit(new BigDecimal("150.00"));
+        request.setTradeDate(LocalDateTime.of(2024, 2, 1, 12, 0));
+        return request;
+    }
+
+    private static InvestmentGoalController.GoalRequest goalRequest() {
+        InvestmentGoalController.GoalRequest request = new InvestmentGoalController.GoalRequest();
+        request.setName("house");
+        request.setTargetAmount(new BigDecimal("50000"));
+        request.setStatus(InvestmentGoal.GoalStatus.ACTIVE);
+        return request;
+    }
+}
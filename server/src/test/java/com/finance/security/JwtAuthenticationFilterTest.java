@@ -0,0 +1,91 @@
+package com.finance.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final UserPrincipalCache principalCache = new UserPrincipalCache(16, 300);
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "mysupersecurelongsecretkeythatismorethan64characterslong1234567890test");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "validationCacheSize", 16);
+        tokenProvider.init();
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, principalCache);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void principalComesFromTheCacheNotFromTheTokenAndIsLoadedOnce() throws Exception {
+        String token = tokenFor(principal("ROLE_USER"));
+        when(userDetailsService.loadUserById(7L)).thenReturn(principal("ROLE_AUDITOR"));
+
+        assertThat(authorities(authenticate(token))).containsExactly("ROLE_AUDITOR");
+        assertThat(authenticate(token)).isNotNull();
+        verify(userDetailsService, times(1)).loadUserById(7L);
+    }
+
+    @Test
+    void invalidatingTheUserAppliesToTokensAlreadyIssued() throws Exception {
+        String token = tokenFor(principal("ROLE_USER"));
+        when(userDetailsService.loadUserById(7L)).thenReturn(principal("ROLE_USER"));
+        assertThat(authenticate(token)).isNotNull();
+
+        when(userDetailsService.loadUserById(7L)).thenThrow(new UsernameNotFoundException("gone"));
+        assertThat(authenticate(token)).isNotNull();
+
+        principalCache.invalidate(7L);
+        assertThat(authenticate(token)).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String tokenFor(UserPrincipal principal) {
+        return tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static UserPrincipal principal(String role) {
+        return new UserPrincipal(7L, "alice", "alice@example.com", null, List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,254 @@
+package com.finance.service;
+
+import com.finance.model.Expense;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles({"memory", "test"})
+class BulkImportServiceTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        int n = USERS.incrementAndGet();
+        user = userRepository.save(new User("importer" + n, "importer" + n + "@example.com", "unused"));
+    }
+
+    @Test
+    void ofxBankStatementImportsDebitsAndSkipsCredits() throws Exception {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240115120000.000[-5:EST]
+                <TRNAMT>-42.50
+                <NAME>Coffee &amp; Co
+                <MEMO>team breakfast
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240116
+                <TRNAMT>1000.00
+                <NAME>Salary
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240117
+                <TRNAMT>abc
+                <NAME>Broken
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """;
+
+        BulkImportService.ImportResult result = bulkImportService.importExpenses(user.getId(), file(ofx),
+                BulkImportService.Format.OFX, "OTHER");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        // Errors point at the line opening the record
+        assertThat(result.errors()).containsExactly(new BulkImportService.RowError(21, "Invalid amount: abc"));
+
+        List<Expense> expenses = expenses();
+        assertThat(expenses).hasSize(1);
+        Expense expense = expenses.get(0);
+        assertThat(expense.getAmount()).isEqualByComparingTo("42.50");
+        assertThat(expense.getDescription()).isEqualTo("Coffee & Co");
+        assertThat(expense.getNotes()).isEqualTo("team breakfast");
+        assertThat(expense.getExpenseDate()).isEqualTo(LocalDateTime.of(2024, 1, 15, 12, 0));
+        assertThat(expense.getCategory()).isEqualTo("OTHER");
+    }
+
+    @Test
+    void ofxXmlInvestmentStatementResolvesTickersAndTradeKinds() throws Exception {
+        String ofx = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220"?>
+                <OFX>
+                  <INVSTMTMSGSRSV1><INVSTMTTRNRS><INVSTMTRS>
+                    <INVTRANLIST>
+                      <BUYSTOCK>
+                        <INVBUY>
+                          <INVTRAN><FITID>1</FITID><DTTRADE>20240301093000</DTTRADE><MEMO>opening</MEMO></INVTRAN>
+                          <SECID><UNIQUEID>037833100</UNIQUEID><UNIQUEIDTYPE>CUSIP</UNIQUEIDTYPE></SECID>
+                          <UNITS>10</UNITS>
+                          <UNITPRICE>150.25</UNITPRICE>
+                          <COMMISSION>1.00</COMMISSION>
+                          <FEES>0.50</FEES>
+                        </INVBUY>
+                        <BUYTYPE>BUY</BUYTYPE>
+                      </BUYSTOCK>
+                      <SELLMF>
+                        <INVSELL>
+                          <INVTRAN><FITID>2</FITID><DTTRADE>20240302</DTTRADE></INVTRAN>
+                          <SECID><UNIQUEID>922908363</UNIQUEID><UNIQUEIDTYPE>CUSIP</UNIQUEIDTYPE></SECID>
+                          <UNITS>-5</UNITS>
+                          <UNITPRICE>400.00</UNITPRICE>
+                        </INVSELL>
+                        <SELLTYPE>SELL</SELLTYPE>
+                      </SELLMF>
+                      <INCOME>
+                        <INVTRAN><FITID>3</FITID><DTTRADE>20240303</DTTRADE></INVTRAN>
+                        <TOTAL>12.00</TOTAL>
+                      </INCOME>
+                    </INVTRANLIST>
+                  </INVSTMTRS></INVSTMTTRNRS></INVSTMTMSGSRSV1>
+                  <SECLISTMSGSRSV1><SECLIST>
+                    <STOCKINFO><SECINFO>
+                      <SECID><UNIQUEID>037833100</UNIQUEID><UNIQUEIDTYPE>CUSIP</UNIQUEIDTYPE></SECID>
+                      <SECNAME>Apple Inc.</SECNAME><TICKER>aapl</TICKER>
+                    </SECINFO></STOCKINFO>
+                  </SECLIST></SECLISTMSGSRSV1>
+                </OFX>
+                """;
+
+        BulkImportService.ImportResult result = bulkImportService.importTrades(user.getId(), file(ofx),
+                BulkImportService.Format.OFX, "STOCK");
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isZero();
+
+        List<Trade> trades = tradeRepository.findByUserIdOrderByTradeDateAscIdAsc(user.getId());
+        assertThat(trades).hasSize(2);
+        Trade buy = trades.get(0);
+        assertThat(buy.getTradeType()).isEqualTo(Trade.TradeType.BUY);
+        assertThat(buy.getSymbol()).isEqualTo("AAPL");
+        assertThat(buy.getAssetType()).isEqualTo("STOCK");
+        assertThat(buy.getQuantity()).isEqualByComparingTo("10");
+        assertThat(buy.getPricePerUnit()).isEqualByComparingTo("150.25");
+        assertThat(buy.getFees()).isEqualByComparingTo("1.50");
+        assertThat(buy.getTotalAmount()).isEqualByComparingTo("1502.50");
+        assertThat(buy.getNotes()).isEqualTo("opening");
+        assertThat(buy.getTradeDate()).isEqualTo(LocalDateTime.of(2024, 3, 1, 9, 30));
+
+        Trade sell = trades.get(1);
+        assertThat(sell.getTradeType()).isEqualTo(Trade.TradeType.SELL);
+        // Not in the security list, so the id stands in for the ticker
+        assertThat(sell.getSymbol()).isEqualTo("922908363");
+        assertThat(sell.getAssetType()).isEqualTo("FUND");
+        assertThat(sell.getQuantity()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void csvDatesAcceptTheDocumentedFormats() throws Exception {
+        String csv = """
+                Description,Amount,Category,Date
+                iso date,1,FOOD,2024-03-01
+                iso date-time,1,FOOD,2024-03-02T10:15:30
+                spaced minutes,1,FOOD,2024-03-03 10:15
+                spaced seconds,1,FOOD,2024-03-04 10:15:30
+                ofx date,1,FOOD,20240305
+                ofx date-time,1,FOOD,20240306101530
+                us date,1,FOOD,03/07/2024
+                """;
+
+        BulkImportService.ImportResult result = bulkImportService.importExpenses(user.getId(), file(csv),
+                BulkImportService.Format.CSV, "OTHER");
+
+        assertThat(result.imported()).isEqualTo(6);
+        assertThat(result.errors()).containsExactly(new BulkImportService.RowError(8, "Invalid date: 03/07/2024"));
+        assertThat(expenses()).extracting(Expense::getExpenseDate).containsExactly(
+                LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 2, 10, 15, 30),
+                LocalDateTime.of(2024, 3, 3, 10, 15),
+                LocalDateTime.of(2024, 3, 4, 10, 15, 30),
+                LocalDateTime.of(2024, 3, 5, 0, 0),
+                LocalDateTime.of(2024, 3, 6, 10, 15, 30));
+    }
+
+    @Test
+    void invalidRowsAreSkippedAndTheFirstHundredReported() throws Exception {
+        StringBuilder csv = new StringBuilder("Description,Amount,Category,Date\n");
+        for (int i = 0; i < 150; i++) {
+            csv.append("row ").append(i).append(",not-a-number,FOOD,2024-01-01\n");
+        }
+        csv.append("good,12.50,FOOD,2024-01-02\n");
+        csv.append("negative,-1,FOOD,2024-01-03\n");
+
+        BulkImportService.ImportResult result = bulkImportService.importExpenses(user.getId(), file(csv.toString()),
+                BulkImportService.Format.CSV, "OTHER");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(151);
+        assertThat(result.errors()).hasSize(100);
+        assertThat(result.errors().get(0)).isEqualTo(new BulkImportService.RowError(2, "Invalid amount: not-a-number"));
+        assertThat(result.errors().get(99).line()).isEqualTo(101);
+        assertThat(expenses()).extracting(Expense::getDescription).containsExactly("good");
+    }
+
+    @Test
+    void malformedFileRollsBackRowsAlreadyFlushed() {
+        StringBuilder csv = new StringBuilder("Description,Amount,Category,Date\n");
+        // More than one chunk, so earlier rows have been sent to the database
+        for (int i = 0; i < 2500; i++) {
+            csv.append("row ").append(i).append(",1.00,FOOD,2024-01-01\n");
+        }
+        csv.append("\"unterminated,1.00,FOOD,2024-01-01\n");
+
+        assertThatThrownBy(() -> bulkImportService.importExpenses(user.getId(), file(csv.toString()),
+                BulkImportService.Format.CSV, "OTHER"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unterminated quoted field at line 2502");
+        assertThat(expenses()).isEmpty();
+
+        String ofx = "<OFX><BANKTRANLIST><STMTTRN><TRNAMT>-1.00<DTPOSTED>20240101<NAME>cut off";
+        assertThatThrownBy(() -> bulkImportService.importExpenses(user.getId(), file(ofx),
+                BulkImportService.Format.OFX, "OTHER"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated STMTTRN starting at line 1");
+        assertThat(expenses()).isEmpty();
+    }
+
+    private List<Expense> expenses() {
+        return expenseRepository.findByUserIdAndExpenseDateBetween(user.getId(),
+                        LocalDateTime.of(1900, 1, 1, 0, 0), LocalDateTime.of(2100, 1, 1, 0, 0)).stream()
+                .sorted(Comparator.comparing(Expense::getExpenseDate))
+                .toList();
+    }
+
+    private static ByteArrayResource file(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void cancellingARunningCallCancelsUpstreamAndFreesTheSlot() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 4);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+
+        Disposable call = limiter.limit(Mono.never().doOnCancel(() -> upstreamCancelled.set(true))).subscribe();
+        assertThat(limiter.getActive()).isEqualTo(1);
+
+        call.dispose();
+        assertThat(upstreamCancelled).isTrue();
+        assertThat(limiter.getActive()).isZero();
+        assertThat(limiter.limit(Mono.just("next")).block()).isEqualTo("next");
+    }
+
+    @Test
+    void cancelledQueuedCallLeavesTheQueueAndNeverRuns() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 4);
+        AtomicInteger started = new AtomicInteger();
+
+        Disposable running = limiter.limit(Mono.never()).subscribe();
+        Disposable queued = limiter.limit(Mono.fromCallable(started::incrementAndGet)).subscribe();
+        assertThat(limiter.getQueued()).isEqualTo(1);
+
+        queued.dispose();
+        assertThat(limiter.getQueued()).isZero();
+
+        running.dispose();
+        assertThat(limiter.getActive()).isZero();
+        assertThat(started).hasValue(0);
+    }
+
+    @Test
+    void callsBeyondTheQueueBoundFailFast() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1);
+        limiter.limit(Mono.never()).subscribe();
+        limiter.limit(Mono.never()).subscribe();
+
+        assertThatThrownBy(() -> limiter.limit(Mono.just(1)).block())
+                .isInstanceOf(ConcurrencyLimiter.QueueFullException.class);
+        assertThat(limiter.getRejections()).isEqualTo(1);
+    }
+
+    @Test
+    void longQueueOfSynchronousCallsDrainsWithoutRecursion() {
+        int calls = 100_000;
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, calls);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        AtomicInteger completed = new AtomicInteger();
+
+        limiter.limit(gate.asMono()).subscribe();
+        for (int i = 0; i < calls; i++) {
+            limiter.limit(Mono.just(i)).subscribe(value -> completed.incrementAndGet());
+        }
+        assertThat(limiter.getQueued()).isEqualTo(calls);
+
+        gate.tryEmitEmpty();
+        assertThat(completed).hasValue(calls);
+        assertThat(limiter.getActive()).isZero();
+    }
+}
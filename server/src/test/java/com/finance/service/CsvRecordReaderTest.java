@@ -0,0 +1,34 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void cellsStartingWithAQuoteAreImportedAsWritten() throws Exception {
+        String csv = "Description,Notes\r\n'=SUM(A1),'-5 refund\r\n";
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            ImportRecord record = reader.next();
+
+            assertThat(record.get("description")).isEqualTo("'=SUM(A1)");
+            assertThat(record.get("notes")).isEqualTo("'-5 refund");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsQuotesAndLineBreaks() throws Exception {
+        String csv = "\uFEFFDescription,Notes\n\"Coffee, large\",\"said \"\"hi\"\"\nthen left\"\n";
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            ImportRecord record = reader.next();
+
+            assertThat(record.line()).isEqualTo(2);
+            assertThat(record.get("description")).isEqualTo("Coffee, large");
+            assertThat(record.get("notes")).isEqualTo("said \"hi\"\nthen left");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.finance.service;
+
+import com.finance.model.Expense;
+import com.finance.model.User;
+import com.finance.repository.ExpenseMonthlyRollupRepository;
+import com.finance.repository.ExpenseRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"memory", "test"})
+class ExpenseRollupServiceTest {
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentFirstExpensesOfAMonthAndCategoryShareOneRollup() throws Exception {
+        User user = userRepository.save(new User("rollups", "rollups@example.com", "unused"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Rollups exist for the user, so later writes take the adjust path
+        add(transaction, user, "RENT", LocalDateTime.of(2024, 1, 5, 9, 0));
+
+        int threads = 4;
+        int months = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int month = 1; month <= months; month++) {
+                LocalDateTime date = LocalDateTime.of(2024, month, 10, 12, 0);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> writes = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    writes.add(executor.submit(() -> {
+                        go.await();
+                        add(transaction, user, "FOOD", date);
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> write : writes) {
+                    write.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rollupRepository.findByUserIdAndMonthStartAndCategory(user.getId(), LocalDate.of(2024, 3, 1), "FOOD"))
+                .hasValueSatisfying(rollup -> {
+                    assertThat(rollup.getExpenseCount()).isEqualTo(threads);
+                    assertThat(rollup.getTotalAmount()).isEqualByComparingTo(BigDecimal.TEN.multiply(BigDecimal.valueOf(threads)));
+                });
+        assertThat(expenseRollupService.rebuild(user.getId())).isEmpty();
+    }
+
+    private void add(TransactionTemplate transaction, User user, String category, LocalDateTime date) {
+        transaction.executeWithoutResult(status -> {
+            Expense expense = new Expense();
+            expense.setUser(userRepository.getReferenceById(user.getId()));
+            expense.setDescription("test");
+            expense.setAmount(BigDecimal.TEN);
+            expense.setCategory(category);
+            expense.setExpenseDate(date);
+            expenseRollupService.expenseAdded(user.getId(), expenseRepository.saveAndFlush(expense));
+        });
+    }
+}
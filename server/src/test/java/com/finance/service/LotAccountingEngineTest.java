@@ -0,0 +1,138 @@
+package com.finance.service;
+
+import com.finance.model.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LotAccountingEngineTest {
+
+    private final LotAccountingEngine engine = new LotAccountingEngine();
+
+    // Bought 10 @ 100 and 10 @ 120, sold 15 @ 130, now at 110
+    private final List<Trade> trades = List.of(
+            trade("AAPL", Trade.TradeType.BUY, "10", "100"),
+            trade("AAPL", Trade.TradeType.BUY, "10", "120"),
+            trade("AAPL", Trade.TradeType.SELL, "15", "130"));
+
+    @Test
+    void fifoSellsTheOldestLotsFirst() {
+        LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, LotAccountingEngine.CostMethod.FIFO, "110");
+
+        // 10 x (130 - 100) + 5 x (130 - 120); 5 @ 120 left open
+        assertPnl(pnl, "5", "600", "350", "-50");
+    }
+
+    @Test
+    void lifoSellsTheNewestLotsFirst() {
+        LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, LotAccountingEngine.CostMethod.LIFO, "110");
+
+        // 10 x (130 - 120) + 5 x (130 - 100); 5 @ 100 left open
+        assertPnl(pnl, "5", "500", "250", "50");
+    }
+
+    @Test
+    void averageSellsAtThePooledCost() {
+        LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, LotAccountingEngine.CostMethod.AVERAGE, "110");
+
+        // 2200 / 20 = 110 a share: 15 x (130 - 110); 5 @ 110 left open
+        assertPnl(pnl, "5", "550", "300", "0");
+    }
+
+    @Test
+    void averageCostOfASaleIsRoundedToTheMoneyScale() {
+        List<Trade> trades = List.of(
+                trade("MSFT", Trade.TradeType.BUY, "1", "10.00"),
+                trade("MSFT", Trade.TradeType.BUY, "2", "10.01"),
+                trade("MSFT", Trade.TradeType.SELL, "1", "11.00"));
+
+        LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, LotAccountingEngine.CostMethod.AVERAGE, null);
+
+        // 30.02 / 3 = 10.00666.. a share, so the sold share cost 10.0067
+        assertPnl(pnl, "2", "20.0133", "0.9933", null);
+    }
+
+    @Test
+    void oversellingMatchesWhatIsHeldAndReportsTheRest() {
+        List<Trade> trades = List.of(
+                trade("TSLA", Trade.TradeType.BUY, "5", "10"),
+                trade("TSLA", Trade.TradeType.SELL, "8", "12"));
+
+        for (LotAccountingEngine.CostMethod method : LotAccountingEngine.CostMethod.values()) {
+            LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, method, "15");
+
+            assertPnl(pnl, "0", "0", "10", "0");
+            assertThat(pnl.unmatchedSellQuantity()).isEqualByComparingTo("3");
+        }
+    }
+
+    @Test
+    void symbolsAreMatchedSeparatelyAndUnpricedOnesHaveNoUnrealizedPnl() {
+        List<Trade> trades = List.of(
+                trade("BTC", Trade.TradeType.BUY, "0.5", "40000"),
+                trade("ETH", Trade.TradeType.BUY, "2", "3000"),
+                trade("BTC", Trade.TradeType.SELL, "0.25", "44000"));
+
+        Map<String, LotAccountingEngine.SymbolProfitLoss> result = engine.calculate(trades,
+                LotAccountingEngine.CostMethod.FIFO, Map.of("BTC", new BigDecimal("42000")));
+
+        assertThat(result).containsOnlyKeys("BTC", "ETH");
+        assertPnl(result.get("BTC"), "0.25", "10000", "1000", "500");
+        assertPnl(result.get("ETH"), "2", "6000", "0", null);
+    }
+
+    @Test
+    void productsBeyondSixtyFourBitsFallBackToExactArithmetic() {
+        // 1e9 shares (1e17 scaled) at 1e6 (1e8 cents) overflow a long product
+        List<Trade> trades = List.of(
+                trade("BRK", Trade.TradeType.BUY, "1000000000", "1000000.00"),
+                trade("BRK", Trade.TradeType.SELL, "400000000", "1000001.00"));
+
+        LotAccountingEngine.SymbolProfitLoss pnl = calculate(trades, LotAccountingEngine.CostMethod.FIFO, "1000000.50");
+
+        assertPnl(pnl, "600000000", "600000000000000", "400000000", "300000000");
+    }
+
+    @Test
+    void mulDivRoundsHalfAwayFromZeroOnBothPaths() {
+        assertThat(LotAccountingEngine.mulDiv(5, 1, 2)).isEqualTo(3);
+        assertThat(LotAccountingEngine.mulDiv(-5, 1, 2)).isEqualTo(-3);
+        assertThat(LotAccountingEngine.mulDiv(7, 1, 4)).isEqualTo(2);
+        assertThat(LotAccountingEngine.mulDiv(Long.MAX_VALUE / 2, 4, 2)).isEqualTo(Long.MAX_VALUE - 1);
+        assertThat(LotAccountingEngine.mulDiv(Long.MAX_VALUE, 3, 6)).isEqualTo(Long.MAX_VALUE / 2 + 1);
+        assertThat(LotAccountingEngine.mulDiv(Long.MIN_VALUE / 2, 4, 4)).isEqualTo(Long.MIN_VALUE / 2);
+    }
+
+    private LotAccountingEngine.SymbolProfitLoss calculate(List<Trade> trades, LotAccountingEngine.CostMethod method,
+                                                           String currentPrice) {
+        String symbol = trades.get(0).getSymbol();
+        Map<String, BigDecimal> prices = currentPrice != null ? Map.of(symbol, new BigDecimal(currentPrice)) : Map.of();
+        return engine.calculate(trades, method, prices).get(symbol);
+    }
+
+    private static void assertPnl(LotAccountingEngine.SymbolProfitLoss pnl, String quantity, String costBasis,
+                                  String realized, String unrealized) {
+        assertThat(pnl.quantity()).isEqualByComparingTo(quantity);
+        assertThat(pnl.costBasis()).isEqualByComparingTo(costBasis);
+        assertThat(pnl.realizedProfitLoss()).isEqualByComparingTo(realized);
+        if (unrealized == null) {
+            assertThat(pnl.unrealizedProfitLoss()).isNull();
+        } else {
+            assertThat(pnl.unrealizedProfitLoss()).isEqualByComparingTo(unrealized);
+        }
+    }
+
+    private static Trade trade(String symbol, Trade.TradeType type, String quantity, String price) {
+        Trade trade = new Trade();
+        trade.setSymbol(symbol);
+        trade.setAssetType("STOCK");
+        trade.setTradeType(type);
+        trade.setQuantity(new BigDecimal(quantity));
+        trade.setPricePerUnit(new BigDecimal(price));
+        return trade;
+    }
+}
@@ -0,0 +1,158 @@
+package com.finance.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketDataServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final Upstream alphaVantage = new Upstream();
+    private final Upstream coinGecko = new Upstream();
+
+    @BeforeEach
+    void startUpstreams() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/alpha", exchange -> alphaVantage.respond(exchange,
+                "{\"Global Quote\":{\"05. price\":\"101.25\"}}"));
+        server.createContext("/gecko", exchange -> coinGecko.respond(exchange,
+                "{\"" + query(exchange, "ids") + "\":{\"usd\":202.5}}"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopUpstreams() {
+        server.stop(0);
+    }
+
+    @Test
+    void providersAreTriedInPriorityOrderUntilOneAnswers() {
+        MarketDataService service = service(Map.of());
+
+        assertThat(service.getCurrentPrice("AAPL", null)).isEqualByComparingTo("101.25");
+        assertThat(alphaVantage.hits).hasValue(1);
+        assertThat(coinGecko.hits).hasValue(0);
+
+        alphaVantage.status = 500;
+        assertThat(service.getCurrentPrice("MSFT", null)).isEqualByComparingTo("202.5");
+        assertThat(alphaVantage.hits).hasValue(2);
+        assertThat(coinGecko.hits).hasValue(1);
+
+        coinGecko.status = 503;
+        BigDecimal synthetic = service.getCurrentPrice("TSLA", null);
+        assertThat(synthetic).isNotNull().isBetween(new BigDecimal("200"), new BigDecimal("300"));
+        assertThat(alphaVantage.hits).hasValue(3);
+        assertThat(coinGecko.hits).hasValue(2);
+    }
+
+    @Test
+    void breakerOpensAfterFailuresAndStopsCallingTheProvider() {
+        MarketDataService service = service(Map.of(
+                "api.alpha-vantage.circuit-breaker.window-size", "3",
+                "api.alpha-vantage.circuit-breaker.minimum-calls", "3",
+                "api.alpha-vantage.circuit-breaker.open-ms", "60000"));
+        alphaVantage.status = 500;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.getCurrentPrice("SYM" + i, null)).isEqualByComparingTo("202.5");
+        }
+
+        assertThat(alphaVantage.hits).hasValue(3);
+        assertThat(coinGecko.hits).hasValue(5);
+        Map<String, Object> stats = service.getProviderStats().get("alpha-vantage");
+        assertThat(stats)
+                .containsEntry("state", "OPEN")
+                .containsEntry("failures", 3L)
+                .containsEntry("breakerOpenings", 1L)
+                .containsEntry("breakerRejections", 2L);
+    }
+
+    @Test
+    void rateLimitedCallsFallBackWithoutReachingTheProviderOrTrippingTheBreaker() {
+        MarketDataService service = service(Map.of(
+                "api.alpha-vantage.rate-limit.permits", "2",
+                "api.alpha-vantage.rate-limit.period-ms", "60000",
+                "api.alpha-vantage.circuit-breaker.minimum-calls", "2"));
+
+        List<BigDecimal> prices = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            prices.add(service.getCurrentPrice("SYM" + i, null));
+        }
+
+        assertThat(prices).extracting(BigDecimal::toPlainString).containsExactly("101.25", "101.25", "202.5", "202.5");
+        assertThat(alphaVantage.hits).hasValue(2);
+        assertThat(coinGecko.hits).hasValue(2);
+        assertThat(service.getProviderStats().get("alpha-vantage"))
+                .containsEntry("state", "CLOSED")
+                .containsEntry("failures", 0L)
+                .containsEntry("rateLimitRejections", 2L);
+    }
+
+    private MarketDataService service(Map<String, Object> settings) {
+        Map<String, Object> properties = new HashMap<>(settings);
+        properties.put("api.stub.circuit-breaker.enabled", "false");
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test", properties));
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        List<MarketDataProvider> providers = List.of(
+                new StubMarketDataProvider(1000, 0, 0, 0, 0.02, 42),
+                new CoinGeckoProvider(baseUrl + "/gecko", 20, 4, 64, 3000, 3000),
+                new AlphaVantageProvider(baseUrl + "/alpha", "demo", 10, 4, 64, 3000, 3000));
+        MarketDataService service = new MarketDataService(new QuoteCache(1000, 0, 0, 0),
+                new PriceHistoryStore(dir.toString(), 16, 4), Schedulers.immediate(), providers, env,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "priceLookupConcurrency", 8);
+        return service;
+    }
+
+    private static String query(HttpExchange exchange, String name) {
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return "";
+    }
+
+    private static class Upstream {
+
+        final AtomicInteger hits = new AtomicInteger();
+        volatile int status = 200;
+
+        void respond(HttpExchange exchange, String body) throws IOException {
+            hits.incrementAndGet();
+            byte[] bytes = (status == 200 ? body : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.finance.service;
+
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"memory", "test"})
+class PortfolioSnapshotServiceTest {
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentFirstHistoryReadsBuildTheSnapshotsOnce() throws Exception {
+        int threads = 4;
+        int rounds = 5;
+        int days = 30;
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate firstDay = yesterday.minusDays(days - 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                User user = userRepository.save(new User("snapshots" + round, "snapshots" + round + "@example.com", "unused"));
+                buy(user, firstDay);
+
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<List<PortfolioSnapshotService.Point>>> reads = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    reads.add(executor.submit(() -> {
+                        go.await();
+                        return snapshotService.getHistory(user.getId(), firstDay, yesterday);
+                    }));
+                }
+                go.countDown();
+                for (Future<List<PortfolioSnapshotService.Point>> read : reads) {
+                    List<PortfolioSnapshotService.Point> points = read.get();
+                    assertThat(points).hasSize(days);
+                    assertThat(points.get(0).date()).isEqualTo(firstDay);
+                    assertThat(points.get(0).netInvested()).isEqualByComparingTo("200.00");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void buy(User user, LocalDate date) {
+        Trade trade = new Trade();
+        trade.setUser(user);
+        trade.setSymbol("SNAP");
+        trade.setAssetType("STOCK");
+        trade.setTradeType(Trade.TradeType.BUY);
+        trade.setQuantity(new BigDecimal("2"));
+        trade.setPricePerUnit(new BigDecimal("100.00"));
+        trade.setTotalAmount(new BigDecimal("200.00"));
+        trade.setTradeDate(date.atTime(12, 0));
+        tradeRepository.save(trade);
+    }
+}
@@ -0,0 +1,122 @@
+package com.finance.service;
+
+import com.finance.model.Position;
+import com.finance.model.Trade;
+import com.finance.model.User;
+import com.finance.repository.PositionRepository;
+import com.finance.repository.TradeRepository;
+import com.finance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"memory", "test"})
+class PositionServiceTest {
+
+    private static final AtomicLong USERS = new AtomicLong();
+
+    @Autowired
+    private PositionService positionService;
+
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        long n = USERS.incrementAndGet();
+        user = userRepository.save(new User("positions" + n, "positions" + n + "@example.com", "unused"));
+    }
+
+    @Test
+    void sellingMoreThanHeldLeavesTheNextBuyAtItsOwnPrice() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        record(Trade.TradeType.SELL, "AAPL", "5", "100", start);
+        record(Trade.TradeType.BUY, "AAPL", "10", "50", start.plusDays(1));
+        Position position = record(Trade.TradeType.SELL, "AAPL", "4", "60", start.plusDays(2));
+
+        assertThat(position.getQuantity()).isEqualByComparingTo("6");
+        assertThat(position.getCostBasis()).isEqualByComparingTo("300");
+        assertThat(position.getRealizedProfitLoss()).isEqualByComparingTo("40");
+        assertThat(positionService.rebuild(user.getId())).isEmpty();
+    }
+
+    @Test
+    void concurrentTradesOfOneUserAreAllApplied() throws Exception {
+        int threads = 4;
+        int rounds = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                // A fresh symbol per round covers the insert race, the repeats the update race
+                String symbol = "SYM" + round;
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Position>> writes = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    writes.add(executor.submit(() -> {
+                        go.await();
+                        return record(Trade.TradeType.BUY, symbol, "1", "10", LocalDateTime.now());
+                    }));
+                }
+                go.countDown();
+                for (Future<Position> write : writes) {
+                    write.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Position> positions = positionRepository.findByUserIdOrderBySymbolAsc(user.getId());
+        assertThat(positions).hasSize(rounds);
+        assertThat(positions).allSatisfy(position -> {
+            assertThat(position.getQuantity()).isEqualByComparingTo(String.valueOf(threads));
+            assertThat(position.getTradeCount()).isEqualTo(threads);
+        });
+    }
+
+    private Position record(Trade.TradeType type, String symbol, String quantity, String price, LocalDateTime date) {
+        return transaction.execute(status -> {
+            Trade trade = new Trade();
+            trade.setUser(userRepository.getReferenceById(user.getId()));
+            trade.setSymbol(symbol);
+            trade.setAssetType("STOCK");
+            trade.setTradeType(type);
+            trade.setQuantity(new BigDecimal(quantity));
+            trade.setPricePerUnit(new BigDecimal(price));
+            trade.setTotalAmount(new BigDecimal(quantity).multiply(new BigDecimal(price)));
+            trade.setTradeDate(date);
+            positionService.tradeCreated(tradeRepository.save(trade));
+            return positionRepository.findByUserIdAndSymbol(user.getId(), symbol).orElseThrow();
+        });
+    }
+}
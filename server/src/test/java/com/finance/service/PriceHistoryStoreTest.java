@@ -0,0 +1,96 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceHistoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readingSymbolsWithoutHistoryOpensNothing() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 16, 4);
+
+        for (int i = 0; i < 1000; i++) {
+            String symbol = "NONE" + i;
+            assertThat(store.range(symbol, 0, Long.MAX_VALUE, 10).timestamps()).isEmpty();
+            assertThat(store.downsample(symbol, 0, 1000, 100)).isEmpty();
+            assertThat(store.dailyCloses(symbol, LocalDate.of(2024, 1, 1), 3)).containsOnly(Double.NaN);
+            assertThat(store.lastTimestamp(symbol)).isNull();
+        }
+
+        assertThat(store.openSymbols()).isZero();
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void openSymbolsStayBoundedAndEvictedHistoryIsReadBack() {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 16, 4);
+
+        for (int round = 1; round <= 3; round++) {
+            for (int i = 0; i < 20; i++) {
+                assertThat(store.append("SYM" + i, round * 1000L, round)).isTrue();
+                assertThat(store.openSymbols()).isLessThanOrEqualTo(4);
+            }
+        }
+
+        for (int i = 0; i < 20; i++) {
+            PriceHistoryStore.Series series = store.range("SYM" + i, 0, Long.MAX_VALUE, 10);
+            assertThat(series.timestamps()).containsExactly(1000L, 2000L, 3000L);
+            assertThat(series.prices()).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    void concurrentWritersLoseNoPointsWhileSeriesAreEvicted() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(dir.toString(), 8, 3);
+        int threads = 4;
+        int symbolsPerThread = 5;
+        int points = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int owner = t;
+                writers.add(executor.submit(() -> {
+                    for (int p = 1; p <= points; p++) {
+                        for (int s = 0; s < symbolsPerThread; s++) {
+                            String symbol = "T" + owner + "S" + s;
+                            store.append(symbol, p, p);
+                            store.range(symbol, 0, Long.MAX_VALUE, 1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int s = 0; s < symbolsPerThread; s++) {
+                PriceHistoryStore.Series series = store.range("T" + t + "S" + s, 0, Long.MAX_VALUE, points + 1);
+                assertThat(series.timestamps()).hasSize(points);
+                assertThat(series.timestamps()[points - 1]).isEqualTo(points);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceStreamServiceTest {
+
+    private static final long IDLE_GRACE_MS = 200;
+
+    private final MarketDataService marketDataService = mock(MarketDataService.class);
+    private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(marketDataService.getCurrentPriceReactive(anyString(), any())).thenAnswer(invocation -> {
+            String symbol = invocation.getArgument(0);
+            String assetType = invocation.getArgument(1);
+            String key = assetType == null ? symbol : symbol + "/" + assetType;
+            lookups.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return Mono.just(new BigDecimal("100.00"));
+        });
+    }
+
+    @Test
+    void subscribersOfASymbolShareOnePoller() throws Exception {
+        // Only the immediate first tick fires within the test
+        PriceStreamService service = new PriceStreamService(marketDataService, 60_000, IDLE_GRACE_MS);
+        List<PriceStreamService.PriceUpdate> first = new CopyOnWriteArrayList<>();
+        List<PriceStreamService.PriceUpdate> second = new CopyOnWriteArrayList<>();
+
+        Disposable a = service.subscribe(List.of("AAPL", "msft")).subscribe(first::add);
+        Disposable b = service.subscribe(List.of("aapl")).subscribe(second::add);
+        await(() -> first.size() == 2 && second.size() == 1);
+
+        assertThat(lookups).containsOnlyKeys("AAPL", "MSFT");
+        assertThat(lookups.get("AAPL")).hasValue(1);
+        assertThat(lookups.get("MSFT")).hasValue(1);
+        assertThat(service.getStats())
+                .containsEntry("activePollers", 2)
+                .containsEntry("feeds", 2)
+                .containsEntry("subscribers", 2);
+
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    void heldPositionsAreLookedUpWithTheirAssetType() throws Exception {
+        PriceStreamService service = new PriceStreamService(marketDataService, 60_000, IDLE_GRACE_MS);
+        List<PriceStreamService.PriceUpdate> held = new CopyOnWriteArrayList<>();
+        List<PriceStreamService.PriceUpdate> untyped = new CopyOnWriteArrayList<>();
+
+        Disposable a = service.subscribe(Map.of("btc", "crypto")).subscribe(held::add);
+        Disposable b = service.subscribe(List.of("BTC")).subscribe(untyped::add);
+        await(() -> held.size() == 1 && untyped.size() == 1);
+
+        assertThat(lookups).containsOnlyKeys("BTC/CRYPTO", "BTC");
+        assertThat(held.get(0).symbol()).isEqualTo("BTC");
+        assertThat(service.getStats()).containsEntry("feeds", 2);
+
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    void pollersAndFeedsAreReleasedAfterTheGracePeriod() throws Exception {
+        PriceStreamService service = new PriceStreamService(marketDataService, 60_000, IDLE_GRACE_MS);
+        List<Disposable> subscriptions = new ArrayList<>();
+        for (int request = 0; request < 4; request++) {
+            List<String> symbols = new ArrayList<>();
+            for (int i = 0; i < PriceStreamService.MAX_SYMBOLS; i++) {
+                symbols.add("R" + request + "S" + i);
+            }
+            subscriptions.add(service.subscribe(symbols).subscribe());
+        }
+        await(() -> service.getStats().get("activePollers") == 4 * PriceStreamService.MAX_SYMBOLS);
+        assertThat(service.getStats()).containsEntry("feeds", 4 * PriceStreamService.MAX_SYMBOLS);
+
+        subscriptions.forEach(Disposable::dispose);
+        assertThat(service.getStats()).containsEntry("subscribers", 0);
+        await(() -> service.getStats().get("feeds") == 0);
+        assertThat(service.getStats()).containsEntry("activePollers", 0);
+
+        // A later subscriber starts a fresh poller
+        List<PriceStreamService.PriceUpdate> updates = new CopyOnWriteArrayList<>();
+        Disposable again = service.subscribe(List.of("R0S0")).subscribe(updates::add);
+        await(() -> updates.size() == 1);
+        assertThat(lookups.get("R0S0")).hasValue(2);
+        assertThat(service.getStats()).containsEntry("feeds", 1).containsEntry("activePollers", 1);
+        again.dispose();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteCacheTest {
+
+    @Test
+    void lookupsWithoutAnAssetTypeNeverServeTypedOnes() throws Exception {
+        QuoteCache cache = new QuoteCache(100, 60, 60, 0);
+        List<String> loads = new CopyOnWriteArrayList<>();
+
+        // Whichever provider answers first for an untyped lookup wins, e.g. a stock with the same ticker
+        BigDecimal untyped = cache.get("btc", null, symbol -> {
+            loads.add(symbol + "/any");
+            return CompletableFuture.completedFuture(new QuoteCache.Quote(new BigDecimal("12.34"), QuoteCache.STOCK));
+        }).get();
+        BigDecimal crypto = cache.get("BTC", "crypto", symbol -> {
+            loads.add(symbol + "/crypto");
+            return CompletableFuture.completedFuture(new QuoteCache.Quote(new BigDecimal("45000.00"), QuoteCache.CRYPTO));
+        }).get();
+        BigDecimal cryptoAgain = cache.get("btc", "CRYPTO", symbol -> {
+            throw new AssertionError("cached");
+        }).get();
+
+        assertThat(untyped).isEqualByComparingTo("12.34");
+        assertThat(crypto).isEqualByComparingTo("45000.00");
+        assertThat(cryptoAgain).isEqualByComparingTo("45000.00");
+        assertThat(loads).containsExactly("BTC/any", "BTC/crypto");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
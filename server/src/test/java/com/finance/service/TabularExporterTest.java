@@ -0,0 +1,85 @@
+package com.finance.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TabularExporterTest {
+
+    private static final int SHEET_DATA_ROWS = 1_048_575;
+    private static final int EXTRA_ROWS = 10;
+    private static final long HEAP_CEILING_BYTES = 64L * 1024 * 1024;
+
+    private record Item(int n, String text, BigDecimal amount, LocalDateTime date) {
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void xlsxBeyondOneSheetContinuesOnTheNextWithinAFixedHeap(@TempDir Path dir) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] peak = {0};
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        EntityStreamer streamer = mock(EntityStreamer.class);
+        doAnswer(invocation -> {
+            Supplier<Stream<Item>> query = invocation.getArgument(0);
+            EntityStreamer.RowHandler<Item> handler = invocation.getArgument(1);
+            try (Stream<Item> rows = query.get()) {
+                for (Item row : (Iterable<Item>) rows::iterator) {
+                    handler.handle(row);
+                    if (row.n() % 200_000 == 0) {
+                        System.gc();
+                        peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed() - before);
+                    }
+                }
+            }
+            return null;
+        }).when(streamer).forEach(any(), any());
+
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Supplier<Stream<Item>> query = () -> IntStream.rangeClosed(1, SHEET_DATA_ROWS + EXTRA_ROWS)
+                .mapToObj(n -> new Item(n, "row " + n, BigDecimal.valueOf(n, 2), date.plusMinutes(n)));
+        List<TabularExporter.Column<Item>> columns = List.of(
+                new TabularExporter.Column<>("N", Item::n),
+                new TabularExporter.Column<>("Text", Item::text),
+                new TabularExporter.Column<>("Amount", Item::amount),
+                new TabularExporter.Column<>("Date", Item::date));
+
+        Path file = dir.resolve("export.xlsx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            new TabularExporter(streamer).export(TabularExporter.Format.XLSX, "Items", query, columns).writeTo(out);
+        }
+
+        assertThat(peak[0]).isLessThan(HEAP_CEILING_BYTES);
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            String workbook = new String(zip.getInputStream(zip.getEntry("xl/workbook.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            assertThat(workbook).contains("name=\"Items\"", "name=\"Items 2\"");
+
+            String second = new String(zip.getInputStream(zip.getEntry("xl/worksheets/sheet2.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            assertThat(second).contains("<row r=\"1\"", ">Amount<", "<row r=\"" + (EXTRA_ROWS + 1) + "\"",
+                    "<v>" + (SHEET_DATA_ROWS + 1));
+            assertThat(second).doesNotContain("<row r=\"" + (EXTRA_ROWS + 2) + "\"");
+        }
+    }
+}